@@ -0,0 +1,385 @@
+package webfx.devs;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * An asynchronous facade over the {@link Database}, returning {@code CompletableFuture}s instead of blocking the caller.
+ * <p>Writes are queued to a single writer thread. Writes that arrive within the commit window of each other are
+ * applied in one transaction and committed together (group commit), so under load many writes share one commit
+ * instead of paying for one each. Every write runs inside its own savepoint: a failing write is rolled back and its
+ * future completes exceptionally, without affecting the other writes of its group.</p>
+ * <p>A write's future completes once its group has been committed. Futures complete on the writer thread, so
+ * dependent stages that do more than a little work should use the {@code ...Async} variants, and UI updates should go
+ * through {@code Platform.runLater()}.</p>
+ * <p>There is never more than one writer thread. It stops once its queue is empty after a {@link #shutdown()}, and
+ * the next write starts a new one.</p>
+ * <p>Reads run on a separate executor using the database's read-only connections, so they are never queued behind writes.</p>
+ * <pre>{@code
+ * AsyncDatabase.insert("User", user)
+ *     .thenRun(() -> Platform.runLater(() -> router.render("users.html")));
+ * }</pre>
+ * <p>The {@link Database} must be connected through {@code Database.connect()} first.</p>
+ */
+public final class AsyncDatabase {
+
+    private AsyncDatabase(){};
+
+    //The writes waiting for the writer thread
+    private static final BlockingQueue<Write<?>> writes = new LinkedBlockingQueue<>();
+
+    //How long the writer waits for more writes to commit with the first one of a group
+    private static volatile long commitWindowNanos = TimeUnit.MILLISECONDS.toNanos(2);
+
+    //The maximum number of writes committed together
+    private static volatile int maxGroupSize = 256;
+
+    //The writer thread, cleared by the thread itself when it exits
+    private static Thread writer = null;
+    private static ExecutorService readExecutor = null;
+
+    private static final AtomicLong commits = new AtomicLong();
+    private static final AtomicLong committedWrites = new AtomicLong();
+
+
+    /**
+     * Inserts a record into the specified table
+     * @param table , the name of the table
+     * @param record , the object containing the data to insert
+     * @return {@code CompletableFuture<Void>} completed once the record is committed
+     * @see Database#insert(String, Object)
+     */
+    public static CompletableFuture<Void> insert(String table, Object record){
+        if(record == null)
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Insertion error: record is null."));
+        return submit(table, lease -> {
+            Database.insertRecord(lease, table, record);
+            return null;
+        });
+    }
+
+
+    /**
+     * Inserts every record in the collection into the specified table, all or nothing
+     * @param table , the name of the table
+     * @param records , the objects containing the data to insert, all of the same class
+     * @return {@code CompletableFuture<Integer>} of the number of rows inserted, completed once they are committed
+     * @see Database#insertAll(String, Collection)
+     */
+    public static CompletableFuture<Integer> insertAll(String table, Collection<?> records){
+        if(records == null)
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Insertion error: records is null."));
+        List<?> copy = new ArrayList<>(records);
+        return submit(table, lease -> Database.insertRecords(lease, table, copy));
+    }
+
+
+    /**
+     * Deletes all rows from the specified table
+     * @param table , the name of the table to clear
+     * @return {@code CompletableFuture<Integer>} of the number of rows deleted, completed once the deletion is committed
+     * @see Database#deleteAll(String)
+     */
+    public static CompletableFuture<Integer> deleteAll(String table){
+        return submit(table, lease -> Database.deleteRows(lease, table));
+    }
+
+
+    /**
+     * Retrieves a record by id on the read executor
+     * @param table , the name of the table
+     * @param id , the id of the desired record
+     * @return {@code CompletableFuture<Data>} of the record, {@code null} if it was not found
+     * @see Database#get(String, String)
+     */
+    public static CompletableFuture<Data> get(String table, String id){
+        return CompletableFuture.supplyAsync(() -> Database.get(table, id), getReadExecutor());
+    }
+
+
+    /**
+     * Retrieves all records of a table on the read executor
+     * @param table , the name of the table
+     * @return {@code CompletableFuture<List<Data>>} of the records, {@code null} if the query failed
+     * @see Database#getAll(String)
+     */
+    public static CompletableFuture<List<Data>> getAll(String table){
+        return CompletableFuture.supplyAsync(() -> Database.getAll(table), getReadExecutor());
+    }
+
+
+    /**
+     * Retrieves the records matching a WHERE clause and typed parameters on the read executor
+     * @param table , the name of the table
+     * @param whereClause , the WHERE clause of the SQL statement
+     * @param params , the parameters to bind to the WHERE clause placeholders
+     * @return {@code CompletableFuture<List<Data>>} of the records, {@code null} if the query failed
+     * @see Database#getAll(String, String, Object...)
+     */
+    public static CompletableFuture<List<Data>> getAll(String table, String whereClause, Object... params){
+        return CompletableFuture.supplyAsync(() -> Database.getAll(table, whereClause, params), getReadExecutor());
+    }
+
+
+    /**
+     * Sets how long the writer waits for more writes to commit along with the first write of a group
+     * <p>A longer window groups more writes per commit under load, at the cost of latency for each write</p>
+     * @param window , the window, {@code 0} to only group writes that are already queued
+     * @param unit , the unit of the window
+     */
+    public static void setCommitWindow(long window, TimeUnit unit){
+        commitWindowNanos = Math.max(0, unit.toNanos(window));
+    }
+
+
+    /**
+     * Sets the maximum number of writes committed together
+     * @param size , the maximum number of writes, at least 1
+     */
+    public static void setMaxGroupSize(int size){
+        maxGroupSize = Math.max(1, size);
+    }
+
+
+    /**
+     * Returns the number of transactions committed by the writer thread
+     * @return {@code long} the commits
+     */
+    public static long getCommits(){
+        return commits.get();
+    }
+
+
+    /**
+     * Returns the number of writes committed by the writer thread, which divided by {@link #getCommits()} gives the average group size
+     * @return {@code long} the writes
+     */
+    public static long getCommittedWrites(){
+        return committedWrites.get();
+    }
+
+
+    /**
+     * Stops the writer thread once every queued write has been committed, and stops the read executor
+     * <p>Writes submitted afterwards are committed after the queued ones, by the same writer thread if it has not
+     * stopped yet, by a new one otherwise</p>
+     * @return {@code CompletableFuture<Void>} completed once the writes queued before the call are committed
+     */
+    public static synchronized CompletableFuture<Void> shutdown(){
+        if(readExecutor != null){
+            readExecutor.shutdown();
+            readExecutor = null;
+        }
+        if(writer == null)
+            return CompletableFuture.completedFuture(null);
+        Write<Void> stop = new Write<>(null, null);
+        writes.add(stop);
+        return stop.future;
+    }
+
+
+    /**
+     * Queues a write for the writer thread, starting it if needed
+     * @param table , the table written, for the query cache
+     * @param operation , the write, run on the writer connection without committing
+     * @return {@code CompletableFuture<T>} of the write's result
+     */
+    private static synchronized <T> CompletableFuture<T> submit(String table, Operation<T> operation){
+        Write<T> write = new Write<>(table, operation);
+        writes.add(write);
+        if(writer == null)
+            startWriter();
+        return write.future;
+    }
+
+
+    /**
+     * Starts the writer thread, called while holding the class lock with no writer running
+     */
+    private static void startWriter(){
+        writer = new Thread(AsyncDatabase::writeLoop, "webfx-database-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+
+    /**
+     * Takes writes from the queue in groups and commits each group, until a stop request is taken with no writes queued after it
+     */
+    private static void writeLoop(){
+        List<Write<?>> group = new ArrayList<>();
+        boolean running = true;
+        try{
+            while(running){
+                if(writeGroup(group))
+                    continue;
+                //Writes submitted after a stop request keep this thread running, so a second writer never starts
+                synchronized(AsyncDatabase.class){
+                    running = !writes.isEmpty() && !Thread.currentThread().isInterrupted();
+                    if(!running)
+                        writerExited();
+                }
+            }
+        }finally{
+            if(running){
+                synchronized(AsyncDatabase.class){
+                    writerExited();
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Clears the writer if it is the current thread, starting a new one for any write still queued.
+     * Called by the exiting writer while holding the class lock
+     */
+    private static void writerExited(){
+        if(writer != Thread.currentThread())
+            return;
+        writer = null;
+        if(!writes.isEmpty())
+            startWriter();
+    }
+
+
+    /**
+     * Takes the next group of writes from the queue and commits it
+     * @param group , the list holding the group, empty and reused between calls
+     * @return {@code true} to keep running, {@code false} if a stop request was taken or the thread was interrupted
+     */
+    private static boolean writeGroup(List<Write<?>> group){
+        boolean running = true;
+        try{
+            group.add(writes.take());
+            long deadline = System.nanoTime() + commitWindowNanos;
+            while(group.size() < maxGroupSize && group.get(group.size() - 1).operation != null){
+                long remaining = deadline - System.nanoTime();
+                Write<?> next = remaining > 0 ? writes.poll(remaining, TimeUnit.NANOSECONDS) : writes.poll();
+                if(next == null)
+                    break;
+                group.add(next);
+            }
+        }catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+        Write<?> last = group.isEmpty() ? null : group.get(group.size() - 1);
+        if(last != null && last.operation == null){
+            group.remove(group.size() - 1);
+            running = false;
+        }
+        commitGroup(group);
+        group.clear();
+        if(last != null && last.operation == null)
+            last.future.complete(null);
+        return running;
+    }
+
+
+    /**
+     * Applies each write of a group in its own savepoint and commits them in a single transaction
+     * @param group , the writes to commit
+     */
+    private static void commitGroup(List<Write<?>> group){
+        if(group.isEmpty())
+            return;
+        List<Write<?>> applied = new ArrayList<>(group.size());
+        try(ConnectionManager.Lease lease = Database.writer()){
+            Connection connection = lease.connection();
+            try{
+                for(Write<?> write : group){
+                    Savepoint savepoint = connection.setSavepoint();
+                    try{
+                        write.apply(lease);
+                        connection.releaseSavepoint(savepoint);
+                        applied.add(write);
+                    }catch (Exception e){
+                        connection.rollback(savepoint);
+                        connection.releaseSavepoint(savepoint);
+                        write.future.completeExceptionally(e);
+                    }
+                }
+                connection.commit();
+            }catch (SQLException e){
+                connection.rollback();
+                throw e;
+            }
+        }catch (SQLException e){
+            for(Write<?> write : group)
+                write.future.completeExceptionally(e);
+            return;
+        }finally{
+            Set<String> tables = new LinkedHashSet<>();
+            for(Write<?> write : applied)
+                tables.add(write.table);
+            for(String table : tables)
+                Database.tableWritten(table);
+        }
+        commits.incrementAndGet();
+        committedWrites.addAndGet(applied.size());
+        for(Write<?> write : applied)
+            write.complete();
+    }
+
+
+    /**
+     * Returns the executor that runs reads, creating it on first use
+     * @return The {@code ExecutorService} with a virtual thread per task
+     */
+    private static synchronized ExecutorService getReadExecutor(){
+        if(readExecutor == null)
+            readExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        return readExecutor;
+    }
+
+
+    /**
+     * A write run on the writer connection, without committing
+     * @param <T> the type of the write's result
+     */
+    @FunctionalInterface
+    private interface Operation<T> {
+        T run(ConnectionManager.Lease lease) throws Exception;
+    }
+
+
+    /**
+     * A queued write along with its future. A write without an operation asks the writer thread to stop.
+     * @param <T> the type of the write's result
+     */
+    private static final class Write<T> {
+
+        final String table;
+        final Operation<T> operation;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+
+        Write(String table, Operation<T> operation){
+            this.table = table;
+            this.operation = operation;
+        }
+
+        void apply(ConnectionManager.Lease lease) throws Exception {
+            result = operation.run(lease);
+        }
+
+        void complete(){
+            future.complete(result);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package webfx.devs;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+
+/**
+ * A template that has been parsed once into literal text and {@code {{key}}} placeholders.
+ * <p>Rendering fills every placeholder in a single pass, so its cost depends only on the size of the template and the
+ * injected values. Placeholders without a matching key are cleared.</p>
+ * <p>A placeholder starts with two opening braces and ends at the first two closing braces on the same line.
+ * Text between two placeholders is always kept.</p>
+ * <p>Templates are usually obtained through {@link TemplateEngine#compile(String)}, which caches them.</p>
+ */
+public final class CompiledTemplate {
+
+    private final String[] literals;
+    private final String[] keys;
+    private final int literalLength;
+
+
+    private CompiledTemplate(String[] literals, String[] keys, int literalLength){
+        this.literals = literals;
+        this.keys = keys;
+        this.literalLength = literalLength;
+    }
+
+
+    /**
+     * Parses a template into its literal text and placeholders
+     * @param content , The raw template string with placeholders
+     * @return The {@code CompiledTemplate}
+     */
+    public static CompiledTemplate compile(String content){
+        List<String> literals = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        int literalLength = 0;
+        int start = 0;
+        int open = content.indexOf("{{");
+        while(open >= 0){
+            while(open + 2 < content.length() && content.charAt(open + 2) == '{')
+                open++;
+            int close = content.indexOf("}}", open + 2);
+            int lineEnd = content.indexOf('\n', open + 2);
+            if(close < 0)
+                break;
+            if(lineEnd >= 0 && lineEnd < close){
+                open = content.indexOf("{{", lineEnd);
+                continue;
+            }
+            literals.add(content.substring(start, open));
+            literalLength += open - start;
+            keys.add(content.substring(open + 2, close));
+            start = close + 2;
+            open = content.indexOf("{{", start);
+        }
+        literals.add(content.substring(start));
+        literalLength += content.length() - start;
+        return new CompiledTemplate(literals.toArray(new String[0]), keys.toArray(new String[0]), literalLength);
+    }
+
+
+    /**
+     * Renders the template, filling each placeholder with the value of the matching key
+     * <p>Primitive values are inserted as-is, objects and arrays are inserted as JSON, and missing or {@code null} values are cleared</p>
+     * @param data , the values to inject, {@code null} to only clear the placeholders
+     * @return {@code String} of the rendered content
+     */
+    public String render(JsonObject data){
+        StringBuilder output = new StringBuilder(literalLength + keys.length * 16);
+        output.append(literals[0]);
+        for(int i = 0; i < keys.length; i++){
+            JsonElement value = data == null ? null : data.get(keys[i]);
+            if(value != null && !value.isJsonNull())
+                output.append(value.isJsonPrimitive() ? value.getAsString() : value.toString());
+            output.append(literals[i + 1]);
+        }
+        return output.toString();
+    }
+
+
+    /**
+     * Returns the keys of the placeholders, in the order they appear in the template
+     * @return {@code String[]} of the keys
+     */
+    public String[] getKeys(){
+        return keys.clone();
+    }
+
+
+    /**
+     * Approximates the memory held for this template in bytes, counting both its literal text and the source content it is cached under
+     * @return {@code long} the approximate size
+     */
+    long weight(){
+        return literalLength * 4L;
+    }
+}
@@ -0,0 +1,271 @@
+package webfx.devs;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import org.sqlite.SQLiteConfig;
+
+
+/**
+ * Manages the connections of an SQLite database opened in WAL mode: one writer connection and a small pool of read-only connections.
+ * <p>Writes are serialized through the writer, which can be used by any thread but only one at a time. Readers run
+ * on their own connections, so queries on background threads continue while a write is in progress. A thread that
+ * holds the writer reads through it, so it always sees its own uncommitted changes.</p>
+ * <p>Every connection has its own {@link StatementCache}.</p>
+ */
+final class ConnectionManager implements AutoCloseable {
+
+    //How long a connection waits on a locked database before failing
+    private static final int BUSY_TIMEOUT = 5000;
+
+    private final Lease writer;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final BlockingQueue<Lease> idleReaders;
+    private final List<Lease> readers = new ArrayList<>();
+    private final AtomicLong schemaVersion = new AtomicLong();
+    private volatile boolean closed = false;
+
+
+    private ConnectionManager(String url, int readerCount, int statementCacheSize) throws SQLException {
+        SQLiteConfig writerConfig = new SQLiteConfig();
+        writerConfig.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        writerConfig.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        writerConfig.setBusyTimeout(BUSY_TIMEOUT);
+        Connection connection = writerConfig.createConnection(url);
+        connection.setAutoCommit(false);
+        this.writer = new Lease(this, connection, statementCacheSize, true);
+        this.idleReaders = new ArrayBlockingQueue<>(Math.max(1, readerCount));
+        try{
+            for(int i = 0; i < readerCount; i++){
+                SQLiteConfig readerConfig = new SQLiteConfig();
+                readerConfig.setReadOnly(true);
+                readerConfig.setBusyTimeout(BUSY_TIMEOUT);
+                Lease reader = new Lease(this, readerConfig.createConnection(url), statementCacheSize, false);
+                readers.add(reader);
+                idleReaders.add(reader);
+            }
+        } catch (SQLException e){
+            close();
+            throw e;
+        }
+    }
+
+
+    /**
+     * Opens a database with a writer connection in WAL mode and the given number of read-only connections
+     * @param url , the JDBC url of the database
+     * @param readerCount , the number of read-only connections, {@code 0} to read through the writer
+     * @param statementCacheSize , the number of prepared statements cached per connection
+     * @return The {@code ConnectionManager} of the database
+     * @throws SQLException if a connection could not be opened
+     */
+    static ConnectionManager open(String url, int readerCount, int statementCacheSize) throws SQLException {
+        return new ConnectionManager(url, Math.max(0, readerCount), statementCacheSize);
+    }
+
+
+    /**
+     * Takes the writer connection, waiting for any other thread using it. Must be closed to release it.
+     * @return The {@code Lease} of the writer
+     * @throws SQLException if the manager is closed
+     */
+    Lease writer() throws SQLException {
+        writeLock.lock();
+        if(closed){
+            //Also closes the writer if no other lease holds it
+            unlockWriter();
+            throw new SQLException("The database connection is closed");
+        }
+        return writer.acquired();
+    }
+
+
+    /**
+     * Takes a read-only connection, waiting up to the busy timeout for one to be free. Must be closed to release it.
+     * <p>The writer is returned instead if the current thread holds it, or if there are no read-only connections</p>
+     * @return The {@code Lease} of a reader
+     * @throws SQLException if the manager is closed, no reader was freed in time, or the thread was interrupted while waiting
+     */
+    Lease reader() throws SQLException {
+        if(closed)
+            throw new SQLException("The database connection is closed");
+        if(writeLock.isHeldByCurrentThread() || readers.isEmpty())
+            return writer();
+        try{
+            Lease reader = idleReaders.poll(BUSY_TIMEOUT, TimeUnit.MILLISECONDS);
+            if(reader == null)
+                throw new SQLException("No database connection was freed within " + BUSY_TIMEOUT + " ms, close the streams that are no longer used");
+            return reader.acquired();
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+
+    /**
+     * Records that the schema has changed, so every connection drops its cached statements before its next use
+     */
+    void schemaChanged(){
+        schemaVersion.incrementAndGet();
+        if(writeLock.isHeldByCurrentThread())
+            writer.acquired();
+    }
+
+
+    /**
+     * Returns the writer connection's statement cache, followed by the cache of each reader
+     * @return {@code List<StatementCache>} of every connection
+     */
+    List<StatementCache> statementCaches(){
+        List<StatementCache> caches = new ArrayList<>();
+        caches.add(writer.statements);
+        for(Lease reader : readers)
+            caches.add(reader.statements);
+        return Collections.unmodifiableList(caches);
+    }
+
+
+    /**
+     * Sets the number of prepared statements cached per connection
+     * @param size , the maximum number of statements, at least 1
+     */
+    void setStatementCacheSize(int size){
+        for(StatementCache cache : statementCaches())
+            cache.setCapacity(size);
+    }
+
+
+    /**
+     * Closes every connection and its cached statements. Connections in use are closed once their lease is closed.
+     * <p>This includes the writer when the calling thread holds it: it is closed when the outermost of its leases
+     * is closed.</p>
+     */
+    @Override
+    public void close(){
+        closed = true;
+        if(writeLock.tryLock())
+            unlockWriter();
+        Lease reader;
+        while((reader = idleReaders.poll()) != null)
+            reader.closeConnection();
+    }
+
+
+    /**
+     * Releases one hold of the write lock. On the last hold, rolls back what was left uncommitted, or closes the writer
+     * if the manager is closed.
+     * <p>When {@link #close()} cannot take the lock, the thread holding it closes the writer here as it releases its
+     * outermost lease.</p>
+     */
+    private void unlockWriter(){
+        try{
+            if(writeLock.getHoldCount() == 1){
+                if(closed)
+                    writer.closeConnection();
+                else
+                    writer.rollbackPending();
+            }
+        } finally{
+            writeLock.unlock();
+        }
+    }
+
+
+    /**
+     * A connection taken from the manager, along with its statement cache. Closing the lease returns the connection.
+     */
+    static final class Lease implements AutoCloseable {
+
+        private final ConnectionManager manager;
+        private final Connection connection;
+        private final StatementCache statements;
+        private final boolean isWriter;
+        private long schemaVersion;
+
+
+        private Lease(ConnectionManager manager, Connection connection, int statementCacheSize, boolean isWriter){
+            this.manager = manager;
+            this.connection = connection;
+            this.statements = new StatementCache(connection, statementCacheSize);
+            this.isWriter = isWriter;
+            this.schemaVersion = manager.schemaVersion.get();
+        }
+
+        /**
+         * Drops cached statements prepared before the last schema change
+         * @return This lease
+         */
+        private Lease acquired(){
+            long current = manager.schemaVersion.get();
+            if(schemaVersion != current){
+                statements.invalidateAll();
+                schemaVersion = current;
+            }
+            return this;
+        }
+
+        /**
+         * Returns the leased connection
+         * @return The {@code Connection}
+         */
+        Connection connection(){
+            return connection;
+        }
+
+        /**
+         * Returns the statement cache of the leased connection
+         * @return The {@code StatementCache}
+         */
+        StatementCache statements(){
+            return statements;
+        }
+
+        /**
+         * Returns the connection to the manager, closing it if the manager was closed while it was leased
+         * <p>Releasing the outermost lease of the writer rolls back anything it left uncommitted</p>
+         */
+        @Override
+        public void close(){
+            if(isWriter){
+                manager.unlockWriter();
+                return;
+            }
+            manager.idleReaders.offer(this);
+            //Rechecked after returning, since the manager may have emptied the idle readers in between
+            if(manager.closed && manager.idleReaders.remove(this))
+                closeConnection();
+        }
+
+        /**
+         * Rolls back the open transaction, so what was left uncommitted is not committed by the next write
+         * <p>Outside auto-commit the driver always keeps a deferred transaction open, so after a commit this only ends an empty one</p>
+         */
+        private void rollbackPending(){
+            try{
+                connection.rollback();
+            } catch (SQLException e){
+                e.printStackTrace();
+            }
+        }
+
+        /**
+         * Closes the underlying connection and its cached statements
+         */
+        private void closeConnection(){
+            statements.invalidateAll();
+            try{
+                connection.close();
+            } catch (SQLException e){
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -3,7 +3,6 @@ package webfx.devs;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.List;
 
 
 /**
@@ -91,114 +90,45 @@ public class Data extends HashMap<String, Object>{
      * <p>Example Key: "object1.object2.list[0].value" </p>
      * <p>Only objects and lists should be followed by ".", with the desired value following the final "." </p>
      * <p>When looking for specific values within lists, the location of that value should be enclosed {@code []} and follow the list's name, e.g. myList[loc] </p>
+     * <p>A location of {@code [*]} matches every element of the list, e.g. "items[*].price", and all matches are returned in an {@code ArrayList}, as by {@link Data#findAll(String) findAll()}</p>
+     * <p>Paths are compiled once and cached, see {@link DataPath}. A key that is not a valid path is looked up as is.</p>
      * @param key The location of the value within the {@code Data} object.
      * @return The desired value as an {@code Object} 
      */
     public Object find(String key){
-        try{
-
-            if(!key.contains(".")){
-                return this.get(key);
-            }
-
-            List<String> keys = new ArrayList<>(List.of(key.split("\\.")));
-            Data curr = this;
-            key = keys.removeLast();
-
-            for(String k : keys){
-                if(isFindList(k)){
-                    int loc = getListLoc(k);
-                    curr = DataManager.toData(curr.getList(getListName(k)).get(loc));
-                }
-                else
-                    curr = curr.getData(k);
-                if(curr == null)
-                    return null;
-            }
-            if(isFindList(key))
-                return curr.getList(getListName(key)).get(getListLoc(key));
-            else
-                return curr.get(key);
-        }catch(Exception e){
-            return null;
-        }
-    }
-
-
-    /**
-     * Extracts the index value from a key string in the format "listName[index]".
-     * <p>Serves as a helper for {@link Data#find(String) find()}</p>
-     *
-     * @param list The string containing a list name with an index.
-     * @return The index as an integer, or -1 if invalid.
-     */
-    private int getListLoc(String list){
-        try{
-            if(!isFindList(list))
-                return -1;
-    
-            int start = list.indexOf("[") + 1;
-            int end = list.indexOf("]");
-
-            String num = list.substring(start, end);
-
-            return Integer.parseInt(num);
-        } catch (Exception e){
-            return -1;
-        }
+        DataPath path = DataPath.cached(key);
+        if(path == DataPath.INVALID)
+            return this.get(key);
+        return path.find(this);
     }
 
 
     /**
-     * Extracts the list name from a key string in the format "listName[index]".
-     * <p>Serves as a helper for {@link Data#find(String) find()}</p>
-     *
-     * @param list The string containing a list name with an index.
-     * @return The name of the list, or {@code null} if the format is invalid.
+     * Finds every value matching a path within a {@link Data} object, e.g. "items[*].price" for the price of each item
+     * <p>Elements of a list that do not contain the rest of the path are skipped.</p>
+     * @param key The path of the values, see {@link Data#find(String) find()}
+     * @return An {@code ArrayList<Object>} of the matches, empty if there are none, or {@code null} if the path is invalid
      */
-    private String getListName(String list){
-        try{
-            if(!isFindList(list))
-                return null;
-
-            int end = list.indexOf("[");
-            String name = list.substring(0, end);
-
-            return name;
-        }catch(Exception e){
+    public ArrayList<Object> findAll(String key){
+        DataPath path = DataPath.cached(key);
+        if(path == DataPath.INVALID)
             return null;
-        }
-    }
-
-
-    /**
-     * Used to determine if a specified String is a list in a find search String.
-     * <p>Serves as a helper for {@link Data#find(String) find()}</p>
-     * 
-     * @param list The string containing a list name with an index.
-     * @return {@code True} if it is a list, {@code False} otherwise
-     */
-    private boolean isFindList(String list){
-        if(!list.contains("[") || !list.endsWith("]") || list.startsWith("["))
-            return false;
-        int start = list.indexOf("[") + 1;
-        int end = list.indexOf("]");
-        if(end - start < 1)
-            return false;
-        return true;
+        return path.findAll(this);
     }
 
 
     /**
      * Accepts a key from the {@code Data} object being used to call this method and returns an {@code ArrayList} if applicable.
      * <p>The ArrayList will contain type: {@code String} </p>
-     * <p>This method expects the key's value to be of the form: "[val, val, val]" </p>
+     * <p>This method expects the key's value to be a list, or of the form: "[val, val, val]" </p>
      * @param key The key corresponding the desired data
      * @return An {@code ArrayList<String>} of the Data's content for the specified key, or {@code null}
      */
     public ArrayList<String> getListAsString(String key){
         try{
             Object data = this.get(key);
+            if(data instanceof ArrayList)
+                return DataManager.parseList(data, String.class);
             String str = data.toString();
             ArrayList<String> list = DataManager.parseList(str, String.class);
             return list;
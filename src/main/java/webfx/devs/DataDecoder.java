@@ -0,0 +1,205 @@
+package webfx.devs;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+
+/**
+ * Decodes JSON into {@link Data} in a single pass over the text, using Gson's streaming {@code JsonReader}.
+ * <p>Unlike {@link DataManager#jsonToData(com.google.gson.JsonObject) jsonToData()}, no intermediate {@code JsonObject}
+ * tree is built and leaves are stored as native values: strings as {@code String}, whole numbers as {@code Long},
+ * other numbers as {@code Double} and booleans as {@code Boolean}. Objects become {@code Data} and arrays become
+ * {@code ArrayList<Object>}. As with {@code jsonToData()}, {@code null} values are left out.</p>
+ * <p>The nesting depth and the total number of values are limited, so an oversized payload is rejected before
+ * it is held in memory. Decoders are immutable and can be shared between threads.</p>
+ */
+public final class DataDecoder {
+
+    //The limits used when none are given
+    public static final int DEFAULT_MAX_DEPTH = 64;
+    public static final int DEFAULT_MAX_ELEMENTS = 1_000_000;
+
+    private final int maxDepth;
+    private final int maxElements;
+
+
+    /**
+     * Creates a decoder with the default limits of {@value #DEFAULT_MAX_DEPTH} levels and {@value #DEFAULT_MAX_ELEMENTS} values
+     */
+    public DataDecoder(){
+        this(DEFAULT_MAX_DEPTH, DEFAULT_MAX_ELEMENTS);
+    }
+
+
+    /**
+     * Creates a decoder with the given limits
+     * @param maxDepth , the maximum nesting depth of objects and arrays, the top-level object being 1
+     * @param maxElements , the maximum number of values, counting objects, arrays and leaves
+     */
+    public DataDecoder(int maxDepth, int maxElements){
+        this.maxDepth = Math.max(1, maxDepth);
+        this.maxElements = Math.max(1, maxElements);
+    }
+
+
+    /**
+     * Decodes a JSON object
+     * @param json , the JSON text, which must be an object
+     * @return The {@code Data} of the object
+     * @throws IOException if the JSON is malformed, is not an object or exceeds a limit
+     */
+    public Data decode(String json) throws IOException {
+        return decode(new StringReader(json));
+    }
+
+
+    /**
+     * Decodes a JSON object read from a stream, which is not closed
+     * @param json , the reader of the JSON text, which must be an object
+     * @return The {@code Data} of the object
+     * @throws IOException if the JSON is malformed, is not an object or exceeds a limit
+     */
+    public Data decode(Reader json) throws IOException {
+        JsonReader reader = new JsonReader(json);
+        if(reader.peek() != JsonToken.BEGIN_OBJECT)
+            throw new IOException("Expected a JSON object but was " + reader.peek());
+        int[] elements = {0};
+        Data data = readObject(reader, 1, elements);
+        if(reader.peek() != JsonToken.END_DOCUMENT)
+            throw new IOException("Unexpected content after the JSON object at " + reader.getPath());
+        return data;
+    }
+
+
+    /**
+     * Returns the maximum nesting depth of objects and arrays
+     * @return {@code int} the depth
+     */
+    public int getMaxDepth(){
+        return maxDepth;
+    }
+
+    /**
+     * Returns the maximum number of values
+     * @return {@code int} the number of values
+     */
+    public int getMaxElements(){
+        return maxElements;
+    }
+
+
+    /**
+     * Reads an object, positioned on its opening brace
+     * @param reader , the JSON reader
+     * @param depth , the depth of the object
+     * @param elements , the number of values read so far, updated in place
+     * @return The {@code Data} of the object
+     */
+    private Data readObject(JsonReader reader, int depth, int[] elements) throws IOException {
+        count(reader, depth, elements);
+        Data data = new Data();
+        reader.beginObject();
+        while(reader.hasNext()){
+            String key = reader.nextName();
+            Object value = readValue(reader, depth, elements);
+            if(value != null)
+                data.put(key, value);
+        }
+        reader.endObject();
+        return data;
+    }
+
+
+    /**
+     * Reads an array, positioned on its opening bracket
+     * @param reader , the JSON reader
+     * @param depth , the depth of the array
+     * @param elements , the number of values read so far, updated in place
+     * @return {@code ArrayList<Object>} of the array's values
+     */
+    private ArrayList<Object> readArray(JsonReader reader, int depth, int[] elements) throws IOException {
+        count(reader, depth, elements);
+        ArrayList<Object> list = new ArrayList<>();
+        reader.beginArray();
+        while(reader.hasNext()){
+            Object value = readValue(reader, depth, elements);
+            if(value != null)
+                list.add(value);
+        }
+        reader.endArray();
+        return list;
+    }
+
+
+    /**
+     * Reads the next value of an object or array
+     * @param reader , the JSON reader
+     * @param depth , the depth of the enclosing object or array
+     * @param elements , the number of values read so far, updated in place
+     * @return The value as a native Java object, {@code null} for JSON {@code null}
+     */
+    private Object readValue(JsonReader reader, int depth, int[] elements) throws IOException {
+        switch(reader.peek()){
+            case BEGIN_OBJECT:
+                return readObject(reader, depth + 1, elements);
+            case BEGIN_ARRAY:
+                return readArray(reader, depth + 1, elements);
+            case STRING:
+                count(reader, depth, elements);
+                return reader.nextString();
+            case NUMBER:
+                count(reader, depth, elements);
+                return number(reader.nextString());
+            case BOOLEAN:
+                count(reader, depth, elements);
+                return reader.nextBoolean();
+            case NULL:
+                count(reader, depth, elements);
+                reader.nextNull();
+                return null;
+            default:
+                throw new IOException("Unexpected " + reader.peek() + " at " + reader.getPath());
+        }
+    }
+
+
+    /**
+     * Counts a value against the limits
+     * @param reader , the JSON reader, for the error's location
+     * @param depth , the depth of the value
+     * @param elements , the number of values read so far, updated in place
+     * @throws IOException if a limit is exceeded
+     */
+    private void count(JsonReader reader, int depth, int[] elements) throws IOException {
+        if(depth > maxDepth)
+            throw new IOException("JSON exceeds the maximum depth of " + maxDepth + " at " + reader.getPath());
+        if(++elements[0] > maxElements)
+            throw new IOException("JSON exceeds the maximum of " + maxElements + " values at " + reader.getPath());
+    }
+
+
+    /**
+     * Converts the literal of a JSON number to a {@code Long} if it is a whole number that fits, a {@code Double} otherwise
+     * @param literal , the number as written in the JSON
+     * @return {@code Long} or {@code Double} of the number
+     */
+    private static Object number(String literal){
+        boolean whole = true;
+        for(int i = 0; i < literal.length() && whole; i++){
+            char c = literal.charAt(i);
+            whole = c != '.' && c != 'e' && c != 'E';
+        }
+        if(whole){
+            try{
+                return Long.parseLong(literal);
+            } catch (NumberFormatException e){
+                //Too large for a long, kept as a double
+            }
+        }
+        return Double.parseDouble(literal);
+    }
+}
@@ -22,6 +22,9 @@ public class DataManager {
 
     private DataManager(){}
 
+    //Decodes JSON strings into Data, with the limits set through setDecoderLimits()
+    private static volatile DataDecoder decoder = new DataDecoder();
+
 
 
     /**
@@ -53,6 +56,45 @@ public class DataManager {
         }
     }
 
+    /**
+     * Decodes a JSON object string into a {@link Data} object in a single pass, without building a {@code JsonObject} first.
+     * <p>Leaves are stored as native values, {@code String}, {@code Long}, {@code Double} and {@code Boolean}, so later
+     * reads through {@link Data#get(String, Class)} do not need to parse them again.
+     * Nested objects will be stored as instances of {@code Data} and lists as instances of {@code ArrayList}.</p>
+     * <p>Payloads deeper or larger than the limits set through {@link #setDecoderLimits(int, int)} are rejected.</p>
+     * @param json the JSON object string to be converted
+     * @return a {@code Data} object of the JSON key-value pairs, or {@code null} if the JSON is invalid or exceeds a limit
+     * @see DataDecoder
+     */
+    public static Data jsonToData(String json){
+        try{
+            return decoder.decode(json);
+        } catch (Exception e){
+            System.out.println("Error decoding JSON: " + e.getMessage());
+            return null;
+        }
+    }
+
+
+    /**
+     * Sets the limits applied by {@link #jsonToData(String)}, and so to the data passed to endpoints
+     * @param maxDepth , the maximum nesting depth of objects and arrays, the top-level object being 1
+     * @param maxElements , the maximum number of values, counting objects, arrays and leaves
+     */
+    public static void setDecoderLimits(int maxDepth, int maxElements){
+        decoder = new DataDecoder(maxDepth, maxElements);
+    }
+
+
+    /**
+     * Returns the decoder used by {@link #jsonToData(String)}
+     * @return The {@code DataDecoder}
+     */
+    public static DataDecoder getDecoder(){
+        return decoder;
+    }
+
+
     /**
      * Converts a {@code JsonArray} to an {@code ArrayList<Object>}.
      * @param array The {@code JsonArray} to be converted
@@ -147,6 +189,8 @@ public class DataManager {
      * Accepts a {@code String} and a returns an {@code ArrayList} of the String's contents if applicable.
      * <p>Accepts a {@code Class<T>} and attempts to cast/convert it to the specified type </p>
      * <p>This method expects the String to be of the form: "[val, val, val]" </p>
+     * <p>Values in quotes may contain commas and brackets, and values that are lists themselves, e.g. "[[1, 2], [3]]",
+     * are kept whole so they can be parsed again. See {@link ListTokenizer} for the full format.</p>
      * @param <T> the generic type
      * @param data the String to be converted to an ArrayList
      * @param type the type of the ArrayList
@@ -155,41 +199,18 @@ public class DataManager {
     @SuppressWarnings("unchecked")
     public static <T> ArrayList<T> parseList(String data, Class<T> type){
         try{
-            Character curr = data.charAt(0);
-            if(!curr.equals('[')){
-                System.out.println("Conversion Error: Data did not start with a '['");
-                return null;
-            }
-            curr = data.charAt(data.length()-1);
-            if(!curr.equals(']')){
-                System.out.println("Conversion Error: Data did not end in ']'");
-                return null;
-            }
-            String word = "";
+            ListTokenizer tokens = new ListTokenizer(data);
             ArrayList<T> list = new ArrayList<>();
-            Object checkedWord;
-            for(int i = 1; i < data.length()-1; i++){
-                curr = data.charAt(i);
-                if(curr.equals(']')){
-                    checkedWord = checkDataType(type, word.trim());
-                    if(checkedWord == null)
-                        return null;
-                    list.add((T) checkedWord);
-                    break;
-                }
-                if(curr.equals('"'))
-                    continue;
-                if(curr.equals(',')){
-                    checkedWord = checkDataType(type, word.trim());
-                    if(checkedWord == null)
-                        return null;
-                    list.add((T) checkedWord);
-                    word = "";  
-                    continue;
-                }
-                word += curr;
+            while(tokens.hasNext()){
+                Object checkedWord = checkDataType(type, tokens.next());
+                if(checkedWord == null)
+                    return null;
+                list.add((T) checkedWord);
             }
             return list;
+        }catch(IllegalArgumentException e){
+            System.out.println("Conversion Error: " + e.getMessage());
+            return null;
         }catch(Exception e){
             return null;
         }
@@ -234,6 +255,9 @@ public class DataManager {
      * @return {@code Object} if the type can be converted, {@code null} otherwise
      */
     public static Object checkDataType(Class<?> type, Object data) {
+        Object typed = checkNativeType(type, data);
+        if(typed != null)
+            return typed;
         try {
             String value = data.toString().trim();
             if (type == String.class)
@@ -254,4 +278,37 @@ public class DataManager {
         }
     }
 
+
+    /**
+     * Converts values that are already of a native type, such as those produced by {@link #jsonToData(String)}, without going through a string
+     * <p>Serves as the fast path of {@link #checkDataType(Class, Object) checkDataType()}. It returns the same results,
+     * except for whole numbers beyond 2<sup>53</sup> converted to {@code long}, which are kept exact where the general
+     * path rounds them through a {@code double}. {@code Float} values are only handled here when a {@code float} is
+     * expected, so they are not widened to a {@code double} with a different decimal value.</p>
+     * @param type , the Java class type that we are checking for
+     * @param data , the data that is meant to be checked
+     * @return {@code Object} of the converted value, or {@code null} if the value needs the general conversion
+     */
+    private static Object checkNativeType(Class<?> type, Object data){
+        if(data instanceof String && type == String.class)
+            return ((String) data).trim();
+        if(data instanceof Boolean)
+            return type == boolean.class || type == Boolean.class ? data : null;
+        if(data instanceof Float)
+            return type == float.class || type == Float.class ? data : null;
+        if(!(data instanceof Long || data instanceof Integer || data instanceof Short || data instanceof Byte || data instanceof Double))
+            return null;
+        Number number = (Number) data;
+        boolean whole = data instanceof Long || data instanceof Integer || data instanceof Short || data instanceof Byte;
+        if(type == int.class || type == Integer.class)
+            return whole && number.longValue() == number.intValue() ? (Object) number.intValue() : null;
+        if(type == long.class || type == Long.class)
+            return whole ? (Object) number.longValue() : null;
+        if(type == double.class || type == Double.class)
+            return number.doubleValue();
+        if(type == float.class || type == Float.class)
+            return whole ? (Object) number.floatValue() : null;
+        return null;
+    }
+
 }
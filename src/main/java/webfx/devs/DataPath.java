@@ -0,0 +1,245 @@
+package webfx.devs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+
+/**
+ * A compiled path to values within a {@link Data} object, e.g. {@code "object1.list[0].value"}.
+ * <p>Keys are separated by {@code "."} and list positions are enclosed in {@code []} after the list's name. A position
+ * of {@code [*]} matches every element of the list, so {@code "items[*].price"} selects the price of each item.</p>
+ * <p>A path is parsed once into an array of steps, and compiled paths are cached by their text, so
+ * {@link Data#find(String) Data.find()} can be called in loops without parsing the path again. Evaluating a path
+ * without wildcards does not allocate. Paths are immutable and can be shared between threads.</p>
+ */
+public final class DataPath {
+
+    //The kinds of steps that are not list positions
+    private static final int KEY = -1;
+    private static final int ANY = -2;
+
+    //Paths are usually literals, so the cache stops growing past this many rather than evicting
+    private static final int MAX_CACHED = 4096;
+    private static final ConcurrentHashMap<String, DataPath> CACHE = new ConcurrentHashMap<>();
+
+    //Cached for paths that do not parse, so they are not parsed again on every call
+    static final DataPath INVALID = new DataPath("", new String[0], new int[0], false);
+
+    private final String path;
+    //The key of each step, null for list positions
+    private final String[] keys;
+    //The list position of each step, KEY for key steps and ANY for wildcards
+    private final int[] indexes;
+    private final boolean wildcard;
+
+
+    private DataPath(String path, String[] keys, int[] indexes, boolean wildcard){
+        this.path = path;
+        this.keys = keys;
+        this.indexes = indexes;
+        this.wildcard = wildcard;
+    }
+
+
+    /**
+     * Compiles a path, or returns its cached compilation
+     * @param path , the path, e.g. {@code "object1.list[0].value"} or {@code "items[*].price"}
+     * @return The compiled {@code DataPath}
+     * @throws IllegalArgumentException if the path is {@code null} or malformed
+     */
+    public static DataPath compile(String path){
+        DataPath compiled = cached(path);
+        //Parsed again to report why the path is malformed
+        return compiled != INVALID ? compiled : parse(path);
+    }
+
+
+    /**
+     * Returns the cached compilation of a path, compiling and caching it on first use
+     * @param path , the path
+     * @return The compiled {@code DataPath}, or {@link #INVALID} if the path is {@code null} or malformed
+     */
+    static DataPath cached(String path){
+        if(path == null)
+            return INVALID;
+        DataPath compiled = CACHE.get(path);
+        if(compiled != null)
+            return compiled;
+        try{
+            compiled = parse(path);
+        } catch (IllegalArgumentException e){
+            compiled = INVALID;
+        }
+        if(CACHE.size() < MAX_CACHED)
+            CACHE.putIfAbsent(path, compiled);
+        return compiled;
+    }
+
+
+    /**
+     * Finds the value at this path
+     * <p>For paths containing {@code [*]}, every match is returned in an {@code ArrayList}, as by {@link #findAll(Data)}.</p>
+     * @param data , the {@code Data} object to search
+     * @return The value, or {@code null} if a key is missing, a position is out of bounds or a step does not hold an object or list
+     */
+    public Object find(Data data){
+        if(wildcard)
+            return findAll(data);
+        Object current = data;
+        for(int i = 0; i < keys.length && current != null; i++)
+            current = step(current, i);
+        return current;
+    }
+
+
+    /**
+     * Finds every value matching this path, skipping the elements that do not contain it
+     * @param data , the {@code Data} object to search
+     * @return {@code ArrayList<Object>} of the matches, empty if there are none
+     */
+    public ArrayList<Object> findAll(Data data){
+        ArrayList<Object> matches = new ArrayList<>();
+        forEach(data, matches::add);
+        return matches;
+    }
+
+
+    /**
+     * Passes every value matching this path to an action, without collecting them first
+     * @param data , the {@code Data} object to search
+     * @param action , called with each match, in list order
+     */
+    public void forEach(Data data, Consumer<Object> action){
+        collect(data, 0, action);
+    }
+
+
+    /**
+     * Returns whether the path contains a {@code [*]} wildcard and can match several values
+     * @return {@code true} if it has a wildcard, {@code false} otherwise
+     */
+    public boolean isWildcard(){
+        return wildcard;
+    }
+
+
+    @Override
+    public String toString(){
+        return path;
+    }
+
+
+    /**
+     * Follows the steps of the path from a value, branching into each element of the lists matched by a wildcard
+     * @param current , the value reached so far
+     * @param from , the first step left to follow
+     * @param action , called with each match
+     */
+    private void collect(Object current, int from, Consumer<Object> action){
+        for(int i = from; i < keys.length && current != null; i++){
+            if(indexes[i] != ANY){
+                current = step(current, i);
+                continue;
+            }
+            if(current instanceof RandomAccess && current instanceof List){
+                List<?> list = (List<?>) current;
+                for(int j = 0; j < list.size(); j++)
+                    collect(list.get(j), i + 1, action);
+            }
+            else if(current instanceof List){
+                for(Object element : (List<?>) current)
+                    collect(element, i + 1, action);
+            }
+            return;
+        }
+        if(current != null)
+            action.accept(current);
+    }
+
+
+    /**
+     * Follows a single key or list position step
+     * @param current , the value reached so far
+     * @param i , the step to follow
+     * @return The value the step leads to, or {@code null} if there is none
+     */
+    private Object step(Object current, int i){
+        int index = indexes[i];
+        if(index == KEY)
+            return current instanceof Data ? ((Data) current).get(keys[i]) : null;
+        if(current instanceof List){
+            List<?> list = (List<?>) current;
+            return index < list.size() ? list.get(index) : null;
+        }
+        return null;
+    }
+
+
+    /**
+     * Parses a path into its steps
+     * @param path , the path
+     * @return The compiled {@code DataPath}
+     * @throws IllegalArgumentException if the path is {@code null} or malformed
+     */
+    private static DataPath parse(String path){
+        if(path == null)
+            throw new IllegalArgumentException("Path is null");
+        List<String> keys = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        boolean wildcard = false;
+        int i = 0;
+        int length = path.length();
+        while(true){
+            int start = i;
+            while(i < length && path.charAt(i) != '.' && path.charAt(i) != '[')
+                i++;
+            if(i > start || i == length || path.charAt(i) != '['){
+                keys.add(path.substring(start, i));
+                indexes.add(KEY);
+            }
+            while(i < length && path.charAt(i) == '['){
+                int end = path.indexOf(']', i);
+                if(end < 0)
+                    throw new IllegalArgumentException("Unclosed [ at " + i + " in path: " + path);
+                String position = path.substring(i + 1, end);
+                if(position.equals("*")){
+                    indexes.add(ANY);
+                    wildcard = true;
+                }
+                else
+                    indexes.add(position(position, path));
+                keys.add(null);
+                i = end + 1;
+            }
+            if(i == length)
+                break;
+            if(path.charAt(i) != '.')
+                throw new IllegalArgumentException("Expected . at " + i + " in path: " + path);
+            i++;
+        }
+        int[] steps = new int[indexes.size()];
+        for(int s = 0; s < steps.length; s++)
+            steps[s] = indexes.get(s);
+        return new DataPath(path, keys.toArray(new String[0]), steps, wildcard);
+    }
+
+
+    /**
+     * Parses a list position
+     * @param position , the text between the brackets
+     * @param path , the whole path, for the error message
+     * @return {@code int} of the position
+     * @throws IllegalArgumentException if the position is not a non-negative integer
+     */
+    private static int position(String position, String path){
+        boolean digits = !position.isEmpty() && position.length() <= 9;
+        for(int c = 0; c < position.length() && digits; c++)
+            digits = position.charAt(c) >= '0' && position.charAt(c) <= '9';
+        if(!digits)
+            throw new IllegalArgumentException("Invalid list position [" + position + "] in path: " + path);
+        return Integer.parseInt(position);
+    }
+}
@@ -0,0 +1,214 @@
+package webfx.devs;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.Map;
+import com.google.gson.Gson;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+
+/**
+ * Writes {@link Data} and the values it holds as JSON, straight into an {@code Appendable} such as a
+ * {@code StringBuilder} or a {@code Writer}.
+ * <p>Maps, including nested {@code Data}, become objects, and lists, other iterables and arrays become arrays. Strings,
+ * numbers, booleans, characters and enums are written as JSON leaves, as are the {@code JsonElement} values left by
+ * {@link DataManager#jsonToData(JsonObject) jsonToData()}. Any other object is handed to Gson.</p>
+ * <p>The output matches Gson's defaults: entries with a {@code null} value are left out of objects, and {@code <},
+ * {@code >}, {@code &}, {@code =} and {@code '} are escaped so the JSON can be placed inside html and scripts.</p>
+ */
+public final class DataSerializer {
+
+    private DataSerializer(){};
+
+    //Serializes the objects that are not maps, lists or leaves
+    private static final Gson GSON = new Gson();
+
+    //Nesting deeper than this is taken to be a map or list that contains itself
+    private static final int MAX_DEPTH = 512;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+
+    /**
+     * Serializes a value to a JSON string
+     * @param value , the value, usually a {@code Data}
+     * @return {@code String} of the JSON
+     * @throws IllegalArgumentException if the value contains itself or a number that is not finite
+     */
+    public static String toJson(Object value){
+        StringBuilder json = new StringBuilder(128);
+        try{
+            write(value, json);
+        } catch (IOException e){
+            //A StringBuilder does not throw
+            throw new IllegalStateException(e);
+        }
+        return json.toString();
+    }
+
+
+    /**
+     * Writes a value as JSON to an {@code Appendable}, e.g. a reused {@code StringBuilder} or a {@code Writer}
+     * @param value , the value, usually a {@code Data}
+     * @param out , where the JSON is written
+     * @throws IOException if writing to {@code out} fails
+     * @throws IllegalArgumentException if the value contains itself or a number that is not finite
+     */
+    public static void write(Object value, Appendable out) throws IOException {
+        write(value, out, 0);
+    }
+
+
+    /**
+     * Writes a value at a given nesting depth
+     * @param value , the value
+     * @param out , where the JSON is written
+     * @param depth , the number of enclosing objects and arrays
+     */
+    private static void write(Object value, Appendable out, int depth) throws IOException {
+        if(depth > MAX_DEPTH)
+            throw new IllegalArgumentException("Value is nested more than " + MAX_DEPTH + " levels deep or contains itself");
+        if(value == null || value instanceof JsonNull)
+            out.append("null");
+        else if(value instanceof String)
+            string((String) value, out);
+        else if(value instanceof Boolean)
+            out.append(value.toString());
+        else if(value instanceof Number)
+            number((Number) value, out);
+        else if(value instanceof Map)
+            object((Map<?, ?>) value, out, depth);
+        else if(value instanceof Iterable)
+            array((Iterable<?>) value, out, depth);
+        else if(value instanceof JsonPrimitive)
+            primitive((JsonPrimitive) value, out);
+        else if(value instanceof JsonObject)
+            object(((JsonObject) value).asMap(), out, depth);
+        else if(value instanceof Character || value instanceof Enum)
+            string(value instanceof Enum ? ((Enum<?>) value).name() : value.toString(), out);
+        else if(value.getClass().isArray()){
+            out.append('[');
+            for(int i = 0, length = Array.getLength(value); i < length; i++){
+                if(i > 0)
+                    out.append(',');
+                write(Array.get(value, i), out, depth + 1);
+            }
+            out.append(']');
+        }
+        else
+            GSON.toJson(value, out);
+    }
+
+
+    /**
+     * Writes a map as a JSON object, leaving out entries whose value is {@code null}
+     * @param map , the map
+     * @param out , where the JSON is written
+     * @param depth , the depth of the map
+     */
+    private static void object(Map<?, ?> map, Appendable out, int depth) throws IOException {
+        out.append('{');
+        boolean first = true;
+        for(Map.Entry<?, ?> entry : map.entrySet()){
+            Object value = entry.getValue();
+            if(value == null || value instanceof JsonNull)
+                continue;
+            if(!first)
+                out.append(',');
+            first = false;
+            string(String.valueOf(entry.getKey()), out);
+            out.append(':');
+            write(value, out, depth + 1);
+        }
+        out.append('}');
+    }
+
+
+    /**
+     * Writes the values of an iterable as a JSON array
+     * @param values , the values, e.g. an {@code ArrayList} or a {@code JsonArray}
+     * @param out , where the JSON is written
+     * @param depth , the depth of the array
+     */
+    private static void array(Iterable<?> values, Appendable out, int depth) throws IOException {
+        out.append('[');
+        boolean first = true;
+        for(Object value : values){
+            if(!first)
+                out.append(',');
+            first = false;
+            write(value, out, depth + 1);
+        }
+        out.append(']');
+    }
+
+
+    /**
+     * Writes a Gson primitive as the leaf it holds
+     * @param primitive , the primitive
+     * @param out , where the JSON is written
+     */
+    private static void primitive(JsonPrimitive primitive, Appendable out) throws IOException {
+        if(primitive.isBoolean())
+            out.append(primitive.getAsBoolean() ? "true" : "false");
+        else if(primitive.isNumber())
+            number(primitive.getAsNumber(), out);
+        else
+            string(primitive.getAsString(), out);
+    }
+
+
+    /**
+     * Writes a number
+     * @param number , the number
+     * @param out , where the JSON is written
+     * @throws IllegalArgumentException if the number is {@code NaN} or infinite
+     */
+    private static void number(Number number, Appendable out) throws IOException {
+        if((number instanceof Double && !Double.isFinite((Double) number)) || (number instanceof Float && !Float.isFinite((Float) number)))
+            throw new IllegalArgumentException(number + " is not a valid JSON number");
+        out.append(number.toString());
+    }
+
+
+    /**
+     * Writes a string as a quoted and escaped JSON string
+     * @param value , the string
+     * @param out , where the JSON is written
+     */
+    private static void string(String value, Appendable out) throws IOException {
+        out.append('"');
+        int start = 0;
+        for(int i = 0; i < value.length(); i++){
+            char c = value.charAt(i);
+            String escape = null;
+            if(c == '"')
+                escape = "\\\"";
+            else if(c == '\\')
+                escape = "\\\\";
+            else if(c == '\n')
+                escape = "\\n";
+            else if(c == '\r')
+                escape = "\\r";
+            else if(c == '\t')
+                escape = "\\t";
+            else if(c == '\b')
+                escape = "\\b";
+            else if(c == '\f')
+                escape = "\\f";
+            else if(c < 0x20 || c == '<' || c == '>' || c == '&' || c == '=' || c == '\'' || c == '\u2028' || c == '\u2029'){
+                out.append(value, start, i).append("\\u").append(HEX[c >> 12]).append(HEX[(c >> 8) & 0xf])
+                    .append(HEX[(c >> 4) & 0xf]).append(HEX[c & 0xf]);
+                start = i + 1;
+                continue;
+            }
+            if(escape != null){
+                out.append(value, start, i).append(escape);
+                start = i + 1;
+            }
+        }
+        out.append(value, start, value.length()).append('"');
+    }
+}
@@ -1,18 +1,31 @@
 package webfx.devs;
 
 import java.io.File;
-import java.lang.reflect.Field;
+import java.math.BigDecimal;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
 
 
 /**
@@ -24,32 +37,73 @@ public class Database {
     
     private Database(){};
 
-    //The connection object that is used for interacting with the database
-    private static Connection connection = null;
+    //The connections of the current database: one writer and a pool of read-only connections
+    private static volatile ConnectionManager manager = null;
+
+    //The number of prepared statements kept open per connection
+    private static int statementCacheSize = 64;
+
+    //The number of read-only connections opened by connect() when no count is given
+    private static final int DEFAULT_READERS = 4;
+
+    //The number of records committed together by insertAll() when no batch size is given
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    //The results of get() and getAll(), disabled until given a budget
+    private static final QueryCache queryCache = new QueryCache(0);
+
+    //The names accepted for columns that are put directly into SQL, e.g. the order column of page()
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
 
 
      /**
      * Establishes a connection to an SQLite database located in the user's home directory.
      * It accepts a directory and filename and creates it if it does not exist.
      * <p>Directory can be the same the default ResourceManager directory, "webfx-external" </p>
-     * <p>
-     * Use of this class without calling this method requires updating the {@code Connection} Database.connection attribute
+     * <p>The database is opened in WAL mode with one writer connection and a pool of 4 read-only connections</p>
      * @param directory , the name of the folder that contains the database file
      * @param filename , the name of the database file
      * @return {@code true} if connection is successful, {@code false} otherwise
+     * @see #connect(String, String, int)
      */
     public static boolean connect(String directory, String filename) {
+        return connect(directory, filename, DEFAULT_READERS);
+    }
+
+
+    /**
+     * Establishes a connection to an SQLite database located in the user's home directory, closing any previous one.
+     * <p>The database is opened in WAL mode. Writes go through a single writer connection, one thread at a time,
+     * while reads use a pool of read-only connections, so queries on background threads run alongside a write.
+     * A thread that is writing reads through the writer connection.</p>
+     * @param directory , the name of the folder that contains the database file
+     * @param filename , the name of the database file
+     * @param readers , the number of read-only connections, {@code 0} to read through the writer
+     * @return {@code true} if connection is successful, {@code false} otherwise
+     */
+    public static boolean connect(String directory, String filename, int readers) {
         if(!filename.endsWith(".db"))
             filename += ".db";
+        File dbDirectory = new File(System.getProperty("user.home"));
+        if (!dbDirectory.exists()) {
+            dbDirectory.mkdirs();
+        }
+        return connect(new File(dbDirectory, directory + File.separator + filename), readers);
+    }
+
+
+    /**
+     * Establishes a connection to an SQLite database file at any location, closing any previous one.
+     * <p>Serves as a helper for {@link #connect(String, String, int) connect()}, and lets tests keep their databases in a temporary folder</p>
+     * @param file , the database file
+     * @param readers , the number of read-only connections, {@code 0} to read through the writer
+     * @return {@code true} if connection is successful, {@code false} otherwise
+     */
+    static boolean connect(File file, int readers) {
         try {
-            String dbPath = System.getProperty("user.home") + File.separator + directory + File.separator + filename;
-            File dbDirectory = new File(System.getProperty("user.home"));
-            if (!dbDirectory.exists()) {
-                dbDirectory.mkdirs();
-            }
-    
-            connection = DriverManager.getConnection("jdbc:sqlite:" + dbPath);
-            connection.setAutoCommit(false);
+            close();
+            queryCache.invalidateAll();
+            manager = ConnectionManager.open("jdbc:sqlite:" + file.getPath(), readers, statementCacheSize);
             return true;
         } catch (Exception e) {
             e.printStackTrace();
@@ -58,20 +112,29 @@ public class Database {
     }
 
 
+    /**
+     * Closes every connection to the current database, along with their cached statements
+     */
+    public static void close(){
+        if(manager != null){
+            manager.close();
+            manager = null;
+        }
+    }
+
+
     /**
      * Prints all records in the specified table to the console.
      *
      * @param tableName , the name of the table to print
      */
     public static void printTable(String tableName) {
-        if(connection == null){
-            System.out.println("Connection is null, use the connect() function or set the connection's value through Database.connection = ...");
+        if(manager == null){
+            System.out.println("Connection is null, use the connect() function first");
             return;
         }
         String query = "SELECT * FROM " + tableName;
-        try {
-            Statement stmt = connection.createStatement();
-            ResultSet rs = stmt.executeQuery(query);
+        try (ConnectionManager.Lease lease = manager.reader(); Statement stmt = lease.connection().createStatement(); ResultSet rs = stmt.executeQuery(query)) {
             ResultSetMetaData meta = rs.getMetaData();
             int columnCount = meta.getColumnCount();
             for (int i = 1; i <= columnCount; i++) {
@@ -94,32 +157,29 @@ public class Database {
      * Creates a table based on fields in a given class, with the given table name
      * <p> Fields declared as {@code id} is not permitted as there is an already existing Auto-Incrememented Primary Key Field, id.
      * <p> It is not recommended to annotate primitive fields with {@code @Nullable}. Only reference types (e.g., Integer, Double, String) should be marked as nullable, since primitives cannot represent null values. </p>  
+     * <p> Fields annotated with {@code @Indexed} or {@code @Unique} get their indexes created along with the table. Both the table and its indexes are only created if they do not exist.</p>
      * @param tableName , The name of the table
      * @param clazz , The class that we are mapping the table to
      * @return {@code true} if creation is successful, {@code false} otherwise
      */
     public static boolean createTable(String tableName, Class<?> clazz){
-        if(connection == null){
-            System.out.println("Connection is null, use the connect() function or set the connection's value through Database.connection = ...");
+        if(manager == null){
+            System.out.println("Connection is null, use the connect() function first");
             return false;
         }
-        try{
-            Field[] fields = clazz.getDeclaredFields();
-            StringBuilder columns = new StringBuilder();
-            for(Field field : fields){
-                if(!field.isAnnotationPresent(Ignore.class)){
-                    if(field.isAnnotationPresent(Nullable.class))
-                        columns.append(field.getName() + " " + mapJavaTypeToSQL(field.getType()) + ",");
-                    else
-                        columns.append(field.getName() + " " + mapJavaTypeToSQL(field.getType()) + " NOT NULL,");
-                }
+        try(ConnectionManager.Lease lease = manager.writer()){
+            EntityMetadata metadata = EntityMetadata.of(clazz);
+            try(Statement statement = lease.connection().createStatement()){
+                statement.execute(metadata.createTableSql(tableName));
+                for(String index : metadata.createIndexSql(tableName))
+                    statement.execute(index);
+            }catch (SQLException e){
+                lease.connection().rollback();
+                throw e;
             }
-            if (columns.length() > 0)
-                columns.deleteCharAt(columns.length()-1);
-            String sql = "CREATE TABLE IF NOT EXISTS " + tableName + " (id INTEGER PRIMARY KEY AUTOINCREMENT, " + columns + ")";
-            Statement statement = connection.createStatement();
-            statement.execute(sql);
-            connection.commit();
+            lease.connection().commit();
+            manager.schemaChanged();
+            queryCache.invalidate(tableName);
             return true;
         }catch (SQLException e){
             e.printStackTrace();
@@ -135,15 +195,18 @@ public class Database {
      * @return {@code true} if dropped successfully, {@code false} otherwise
      */
     public static boolean dropTable(String table){
-        if(connection == null){
-            System.out.println("Connection is null, use the connect() function or set the connection's value through Database.connection = ...");
+        if(manager == null){
+            System.out.println("Connection is null, use the connect() function first");
             return false;
         }
-        try{
+        try(ConnectionManager.Lease lease = manager.writer()){
             String sql = "DROP TABLE IF EXISTS " + table;
-            Statement statement = connection.createStatement();
-            statement.execute(sql);
-            connection.commit();
+            try(Statement statement = lease.connection().createStatement()){
+                statement.execute(sql);
+            }
+            lease.connection().commit();
+            manager.schemaChanged();
+            queryCache.invalidate(table);
             return true;
         }catch(SQLException e){
             e.printStackTrace();
@@ -159,15 +222,14 @@ public class Database {
      * @return {@code true} if deletion is successful, {@code false} otherwise
      */
     public static boolean deleteAll(String table){
-        if(connection == null){
-            System.out.println("Connection is null, use the connect() function or set the connection's value through Database.connection = ...");
+        if(manager == null){
+            System.out.println("Connection is null, use the connect() function first");
             return false;
         }
-        try{
-            String sql = "DELETE FROM " + table;
-            Statement statement = connection.createStatement();
-            statement.execute(sql);
-            connection.commit();
+        try(ConnectionManager.Lease lease = manager.writer()){
+            deleteRows(lease, table);
+            lease.connection().commit();
+            queryCache.invalidate(table);
             return true;
         }catch (SQLException e){
             e.printStackTrace();
@@ -176,6 +238,19 @@ public class Database {
     }
 
     
+    /**
+     * Deletes every row of a table on the writer connection without committing it
+     * <p>Serves as a helper for {@link #deleteAll(String) deleteAll()} and {@link AsyncDatabase}</p>
+     * @param lease , the lease of the writer connection
+     * @param table , the name of the table to clear
+     * @return {@code int} the number of rows deleted
+     * @throws SQLException if the rows could not be deleted
+     */
+    static int deleteRows(ConnectionManager.Lease lease, String table) throws SQLException {
+        return lease.statements().prepare("DELETE FROM " + table).executeUpdate();
+    }
+
+    
     /**
      * Inserts a new record into the specified table using the fields and values of the given object.
      * Only the non-null fields with {@code @Nullable} annotation will be included in the insert query.
@@ -185,51 +260,261 @@ public class Database {
      * @return {@code true} if insertion is successful, {@code false} otherwise
      */
     public static boolean insert(String table, Object record){
-        if(connection == null){
-            System.out.println("Connection is null, use the connect() function or set the connection's value through Database.connection = ...");
+        if(manager == null){
+            System.out.println("Connection is null, use the connect() function first");
+            return false;
+        }
+        if (record == null) {
+            System.out.println("Insertion error: record is null.");
+            return false;
+        }
+        try(ConnectionManager.Lease lease = manager.writer()){
+            insertRecord(lease, table, record);
+            lease.connection().commit();
+            queryCache.invalidate(table);
+            return true;
+        }catch (IllegalArgumentException e){
+            System.out.println(e.getMessage());
             return false;
+        }catch (SQLException | IllegalAccessException e){
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+
+    /**
+     * Inserts a record on the writer connection without committing it
+     * <p>Serves as a helper for {@link #insert(String, Object) insert()} and {@link AsyncDatabase}</p>
+     * @param lease , the lease of the writer connection
+     * @param table , the name of the table
+     * @param record , the object containing the data to insert
+     * @throws IllegalArgumentException if a non-nullable field is {@code null}
+     * @throws IllegalAccessException if a field could not be read
+     * @throws SQLException if the record could not be inserted
+     */
+    static void insertRecord(ConnectionManager.Lease lease, String table, Object record) throws SQLException, IllegalAccessException {
+        EntityMetadata metadata = EntityMetadata.of(record.getClass());
+        EntityMetadata.Column[] columns = metadata.columns();
+        Object[] values = new Object[columns.length];
+        boolean complete = true;
+        for(int i=0; i < columns.length; i++){
+            values[i] = columns[i].get(record);
+            if(values[i] == null && !columns[i].nullable)
+                throw new IllegalArgumentException("Passing a null value for a non-nullable field: " + columns[i].name);
+            if(values[i] == null)
+                complete = false;
+        }
+        String sql = complete ? metadata.insertSql(table) : metadata.insertSql(table, values);
+        PreparedStatement statement = lease.statements().prepare(sql);
+        int parameter = 1;
+        for(Object value : values){
+            if(value != null)
+                statement.setObject(parameter++, value);
         }
+        statement.executeUpdate();
+    }
+
+
+    /**
+     * Inserts every record as a single batch on the writer connection without committing it
+     * <p>Serves as a helper for {@link AsyncDatabase}</p>
+     * @param lease , the lease of the writer connection
+     * @param table , the name of the table
+     * @param records , the objects containing the data to insert, all of the same class
+     * @return {@code int} the number of rows inserted
+     * @throws IllegalArgumentException if a record is invalid, in which case nothing is executed
+     * @throws SQLException if the records could not be inserted
+     */
+    static int insertRecords(ConnectionManager.Lease lease, String table, Collection<?> records) throws SQLException {
+        PreparedStatement statement = null;
+        Class<?> clazz = null;
+        EntityMetadata.Column[] columns = null;
         try{
-            if (record == null) {
-                System.out.println("Insertion error: record is null.");
-                return false;
+            for(Object record : records){
+                if(statement == null && record != null){
+                    clazz = record.getClass();
+                    EntityMetadata metadata = EntityMetadata.of(clazz);
+                    columns = metadata.columns();
+                    statement = lease.statements().prepare(metadata.insertSql(table));
+                }
+                String error = addToBatch(statement, clazz, columns, record);
+                if(error != null)
+                    throw new IllegalArgumentException(error);
             }
-            Class<?> clazz = record.getClass();
-            Field[] fields = clazz.getDeclaredFields();
-            StringBuilder names = new StringBuilder();
-            LinkedList<Object> values = new LinkedList<>();
-            StringBuilder placeholders = new StringBuilder();
-            for (Field field : fields){
-                if(!field.isAnnotationPresent(Ignore.class)){
-                    field.setAccessible(true);
-                    Object value = field.get(record);
-                    if(value == null && !field.isAnnotationPresent(Nullable.class)){
-                        System.out.println("Passing a null value for a non-nullable field: " + field.getName());
-                        return false;
+            if(statement == null)
+                return 0;
+            int inserted = 0;
+            for(int count : statement.executeBatch())
+                inserted += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+            return inserted;
+        }catch (SQLException | RuntimeException e){
+            if(statement != null)
+                statement.clearBatch();
+            throw e;
+        }
+    }
+
+
+    /**
+     * Inserts every record in the collection into the specified table, committing in batches of 1000 records.
+     * @param table , the name of the table
+     * @param records , the objects containing the data to insert, all of the same class
+     * @return {@code List<BatchResult>} with the outcome of each batch, {@code null} if nothing could be inserted
+     * @see #insertAll(String, Iterator, int)
+     */
+    public static List<BatchResult> insertAll(String table, Collection<?> records){
+        return insertAll(table, records, DEFAULT_BATCH_SIZE);
+    }
+
+
+    /**
+     * Inserts every record in the collection into the specified table, committing every {@code batchSize} records.
+     * @param table , the name of the table
+     * @param records , the objects containing the data to insert, all of the same class
+     * @param batchSize , the number of records written and committed together
+     * @return {@code List<BatchResult>} with the outcome of each batch, {@code null} if nothing could be inserted
+     * @see #insertAll(String, Iterator, int)
+     */
+    public static List<BatchResult> insertAll(String table, Collection<?> records, int batchSize){
+        if(records == null){
+            System.out.println("Insertion error: records is null.");
+            return null;
+        }
+        return insertAll(table, records.iterator(), batchSize);
+    }
+
+
+    /**
+     * Inserts records from an iterator into the specified table, committing every {@code batchSize} records.
+     * <p>Records are consumed as they are inserted, so a {@code Stream} of any size can be written through {@code stream.iterator()}
+     * without holding it in memory.</p>
+     * <p>The insert statement is prepared once, from the class of the first record, and each batch is sent with {@code executeBatch()}
+     * inside a single transaction. Every column is written, with {@code null} for empty {@code @Nullable} fields.
+     * A batch containing a record of another class, or a {@code null} value for a non-nullable field, is rolled back
+     * and reported, and the following batches are still inserted.</p>
+     * <p>An exception thrown by the iterator rolls back the current batch and is rethrown. The batches committed before it are kept.</p>
+     * @param table , the name of the table
+     * @param records , the objects containing the data to insert, all of the same class
+     * @param batchSize , the number of records written and committed together
+     * @return {@code List<BatchResult>} with the outcome of each batch, {@code null} if nothing could be inserted
+     */
+    public static List<BatchResult> insertAll(String table, Iterator<?> records, int batchSize){
+        if(manager == null){
+            System.out.println("Connection is null, use the connect() function first");
+            return null;
+        }
+        if(records == null){
+            System.out.println("Insertion error: records is null.");
+            return null;
+        }
+        if(batchSize < 1){
+            System.out.println("Insertion error: the batch size must be at least 1.");
+            return null;
+        }
+        List<BatchResult> results = new ArrayList<>();
+        PreparedStatement statement = null;
+        try(ConnectionManager.Lease lease = manager.writer()){
+            Connection connection = lease.connection();
+            try{
+                Class<?> clazz = null;
+                EntityMetadata.Column[] columns = null;
+                int count = 0;
+                String error = null;
+                while(records.hasNext()){
+                    Object record = records.next();
+                    if(statement == null && record != null){
+                        clazz = record.getClass();
+                        EntityMetadata metadata = EntityMetadata.of(clazz);
+                        columns = metadata.columns();
+                        statement = lease.statements().prepare(metadata.insertSql(table));
+                    }
+                    count++;
+                    if(error == null)
+                        error = addToBatch(statement, clazz, columns, record);
+                    if(count == batchSize){
+                        results.add(executeBatch(connection, table, statement, results.size(), count, error));
+                        count = 0;
+                        error = null;
                     }
-                    if(value != null){
-                        names.append(field.getName() + ",");
-                        values.add(value);
-                        placeholders.append("?,");
-                    }  
                 }
+                if(count > 0)
+                    results.add(executeBatch(connection, table, statement, results.size(), count, error));
+                return results;
+            }catch (SQLException | RuntimeException e){
+                if(statement != null)
+                    statement.clearBatch();
+                connection.rollback();
+                throw e;
             }
-            if (placeholders.length() > 0)
-                placeholders.deleteCharAt(placeholders.length()-1);
-            if (names.length() > 0)
-                names.deleteCharAt(names.length()-1);
-            
-            String sql = "INSERT INTO " + table + " (" + names +  ") VALUES (" + placeholders + ")";
-            PreparedStatement statement = connection.prepareStatement(sql);
-            for(int i=0; i < values.size(); i++){
-                statement.setObject(i+1, values.get(i));
+        }catch (SQLException e){
+            e.printStackTrace();
+            return results.isEmpty() ? null : results;
+        }
+    }
+
+
+    /**
+     * Binds a record's fields to the insert statement and adds it to the current batch.
+     * <p>Serves as a helper for {@link #insertAll(String, Iterator, int) insertAll()}</p>
+     * @param statement , the prepared insert statement, {@code null} if no record has been seen yet
+     * @param clazz , the class the statement was prepared for
+     * @param columns , the columns written by the statement
+     * @param record , the record to add
+     * @return {@code null} if the record was added, otherwise the reason it could not be
+     */
+    private static String addToBatch(PreparedStatement statement, Class<?> clazz, EntityMetadata.Column[] columns, Object record) throws SQLException {
+        if(record == null)
+            return "a record is null";
+        if(record.getClass() != clazz)
+            return "a record of type " + record.getClass().getName() + " was passed with records of type " + clazz.getName();
+        try{
+            for(int i=0; i < columns.length; i++){
+                Object value = columns[i].get(record);
+                if(value == null && !columns[i].nullable)
+                    return "Passing a null value for a non-nullable field: " + columns[i].name;
+                statement.setObject(i+1, value);
             }
-            statement.executeUpdate();
+        }catch (IllegalAccessException e){
+            return e.getMessage();
+        }
+        statement.addBatch();
+        return null;
+    }
+
+
+    /**
+     * Executes and commits the current batch, or discards it if one of its records was invalid.
+     * <p>Serves as a helper for {@link #insertAll(String, Iterator, int) insertAll()}. The cached results of the table are
+     * dropped after each commit, so the batches already committed are visible before the import ends.</p>
+     * @param connection , the writer connection the batch is committed on
+     * @param table , the table the batch is inserted into
+     * @param statement , the prepared insert statement
+     * @param index , the position of the batch
+     * @param records , the number of records in the batch
+     * @param error , the reason the batch is invalid, {@code null} if it is valid
+     * @return The {@code BatchResult} of the batch
+     */
+    private static BatchResult executeBatch(Connection connection, String table, PreparedStatement statement, int index, int records, String error) throws SQLException {
+        if(error != null){
+            if(statement != null)
+                statement.clearBatch();
+            connection.rollback();
+            System.out.println("Insertion error in batch " + index + ": " + error);
+            return new BatchResult(index, records, 0, error);
+        }
+        try{
+            int inserted = 0;
+            for(int count : statement.executeBatch())
+                inserted += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
             connection.commit();
-            return true;
-        }catch (SQLException | IllegalAccessException e){
-            e.printStackTrace();
-            return false;
+            queryCache.invalidate(table);
+            return new BatchResult(index, records, inserted, null);
+        }catch (SQLException e){
+            statement.clearBatch();
+            connection.rollback();
+            System.out.println("Insertion error in batch " + index + ": " + e.getMessage());
+            return new BatchResult(index, records, 0, e.getMessage());
         }
     }
 
@@ -241,8 +526,8 @@ public class Database {
      * @return A {@code Data} object containing the content of the retrieved record
      */
     public static Data get(String table, String id) {
-        if(connection == null){
-            System.out.println("Connection is null, use the connect() function or set the connection's value through Database.connection = ...");
+        if(manager == null){
+            System.out.println("Connection is null, use the connect() function first");
             return null;
         }
         if (id == null || id.trim().isEmpty()) {
@@ -251,17 +536,10 @@ public class Database {
         }
     
         String sql = "SELECT * FROM " + table + " WHERE id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, id);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    Data record = new Data();
-                    ResultSetMetaData metaData = resultSet.getMetaData();
-                    for (int i = 1; i <= metaData.getColumnCount(); i++)
-                        record.put(metaData.getColumnName(i), resultSet.getObject(i));
-                    return record;
-                }
-            }
+        try {
+            List<Data> rows = query(table, sql, new Object[]{id});
+            if (!rows.isEmpty())
+                return rows.get(0);
         } catch (SQLException e) {
             System.err.println("Database error while retrieving from " + table + ": " + e.getMessage());
         }
@@ -290,8 +568,8 @@ public class Database {
      * @return {@code List<Data>} object of each record in the returned from the query
      */
     public static List<Data> getAll(String tableName, String whereClause, String... values){
-        if(connection == null){
-            System.out.println("Connection is null, use the connect() function or set the connection's value through Database.connection = ...");
+        if(manager == null){
+            System.out.println("Connection is null, use the connect() function first");
             return null;
         }
         if(whereClause == null || whereClause.trim().equals("")){
@@ -309,56 +587,563 @@ public class Database {
             System.err.println("Error in paramters. The number of values does not match the number of '?'");
             return null;
         }
-        List<Data> results = new ArrayList<>();
         String sql = "SELECT * FROM " + tableName + " WHERE " + whereClause;
-        try(PreparedStatement statement = connection.prepareStatement(sql)){
+        try{
+            return query(tableName, sql, values);
+        }catch(SQLException | PatternSyntaxException e){
+            e.printStackTrace();
+            return null;
+        }
+    }
 
-            for(int i=0; i < values.length; i++)
-                statement.setString(i+1, values[i]);
-            
-            ResultSet resultSet = statement.executeQuery();
-            ResultSetMetaData metaData = resultSet.getMetaData();
-            while(resultSet.next()){
-                Data record = new Data();
-                for(int i=1; i <= metaData.getColumnCount(); i++)
-                    record.put(metaData.getColumnName(i), resultSet.getObject(i));
-                results.add(record);
+
+    /**
+     * Retrieves all records from the specified table that match the provided WHERE clause and typed parameters.
+     * <p>Each parameter is bound with the JDBC setter of its type, so a number is compared as a number even against an
+     * expression, e.g. {@code "age + 1 > ?"}, where a number bound as text would compare greater than every number.
+     * {@code null} parameters are bound as SQL {@code NULL}.</p>
+     * <pre>{@code
+     * List<Data> adults = getAll("User", "age >= ? AND active = ?", 18, true);
+     * }</pre>
+     * @param tableName the name of the table to query from
+     * @param whereClause the WHERE clause of the SQL statement (e.g. "username = ? AND age > ?")
+     * @param params the parameters to bind to the WHERE clause placeholders
+     * @return {@code List<Data>} object of each record in the returned from the query
+     * @see #bind(PreparedStatement, Object[])
+     */
+    public static List<Data> getAll(String tableName, String whereClause, Object... params){
+        if(manager == null){
+            System.out.println("Connection is null, use the connect() function first");
+            return null;
+        }
+        if(whereClause == null || whereClause.trim().equals("")){
+            System.err.println("An invalid 'Where Clause' was passed to getAll()");
+            return null;
+        }
+        if(whereClause.chars().filter(ch -> ch == '?').count() != params.length){
+            System.err.println("Error in paramters. The number of values does not match the number of '?'");
+            return null;
+        }
+        String sql = "SELECT * FROM " + tableName + " WHERE " + whereClause;
+        try{
+            return query(tableName, sql, params);
+        }catch(SQLException e){
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+
+    /**
+     * Returns a page of records from the specified table, ordered by {@code id}
+     * @param tableName the name of the table to query from
+     * @param pageSize the maximum number of records in the page
+     * @param token the token of the previous page, {@code null} for the first page
+     * @return The {@code Page} of records, or {@code null} if the query failed
+     * @see #page(String, String, String, int, String, Object...)
+     */
+    public static Page page(String tableName, int pageSize, String token){
+        return page(tableName, "id", null, pageSize, token);
+    }
+
+
+    /**
+     * Returns a page of records from the specified table, ordered by the given column and then by {@code id}
+     * @param tableName the name of the table to query from
+     * @param orderColumn the column the records are ordered by, ideally indexed
+     * @param pageSize the maximum number of records in the page
+     * @param token the token of the previous page, {@code null} for the first page
+     * @return The {@code Page} of records, or {@code null} if the query failed
+     * @see #page(String, String, String, int, String, Object...)
+     */
+    public static Page page(String tableName, String orderColumn, int pageSize, String token){
+        return page(tableName, orderColumn, null, pageSize, token);
+    }
+
+
+    /**
+     * Returns a page of the records matching a WHERE clause, using keyset pagination.
+     * <p>Records are ordered by {@code orderColumn} and then by {@code id}. Instead of skipping the previous pages,
+     * each page seeks past the last record of the previous one, whose position is carried by the page's token, so
+     * a page costs the same however deep into the table it is, as long as {@code orderColumn} is indexed.</p>
+     * <pre>{@code
+     * Page page = Database.page("Audit", "created", 50, null);
+     * while(page.hasNext())
+     *     page = Database.page("Audit", "created", 50, page.getNextToken());
+     * }</pre>
+     * <p>The token is opaque and only valid for the same table, order column and WHERE clause.</p>
+     * @param tableName the name of the table to query from
+     * @param orderColumn the column the records are ordered by, ideally indexed
+     * @param whereClause the WHERE clause of the SQL statement, {@code null} for every record
+     * @param pageSize the maximum number of records in the page
+     * @param token the token of the previous page, {@code null} for the first page
+     * @param params the parameters to bind to the WHERE clause placeholders
+     * @return The {@code Page} of records, or {@code null} if the query failed
+     */
+    public static Page page(String tableName, String orderColumn, String whereClause, int pageSize, String token, Object... params){
+        if(manager == null){
+            System.out.println("Connection is null, use the connect() function first");
+            return null;
+        }
+        if(orderColumn == null || !IDENTIFIER.matcher(orderColumn).matches()){
+            System.err.println("An invalid order column was passed to page(): " + orderColumn);
+            return null;
+        }
+        if(pageSize < 1){
+            System.err.println("The page size must be at least 1");
+            return null;
+        }
+        if(params == null){
+            System.err.println("An invalid value was passed to page()");
+            return null;
+        }
+        long placeholders = whereClause == null ? 0 : whereClause.chars().filter(ch -> ch == '?').count();
+        if(placeholders != params.length){
+            System.err.println("Error in paramters. The number of values does not match the number of '?'");
+            return null;
+        }
+        boolean byId = orderColumn.equals("id");
+        Object[] position = token == null ? null : decodeToken(token, byId ? 1 : 2);
+        if(token != null && position == null){
+            System.err.println("An invalid token was passed to page()");
+            return null;
+        }
+        String order = byId ? "id" : orderColumn + ", id";
+        List<Data> rows;
+        if(position == null)
+            rows = pageRows(tableName, whereClause, params, null, order, pageSize + 1);
+        else if(byId)
+            rows = pageRows(tableName, whereClause, params, "id > ?", order, pageSize + 1, position[0]);
+        else if(position[0] != null)
+            rows = pageRows(tableName, whereClause, params, "(" + orderColumn + ", id) > (?, ?)", order, pageSize + 1, position);
+        else{
+            //NULLs sort first, so the rest of the NULL keys are read first, then the non-NULL keys from the smallest
+            rows = pageRows(tableName, whereClause, params, orderColumn + " IS NULL AND id > ?", order, pageSize + 1, position[1]);
+            if(rows != null && rows.size() <= pageSize){
+                List<Data> rest = pageRows(tableName, whereClause, params, orderColumn + " IS NOT NULL", order, pageSize + 1 - rows.size());
+                if(rest == null)
+                    return null;
+                rows.addAll(rest);
             }
+        }
+        if(rows == null)
+            return null;
+        if(rows.size() <= pageSize)
+            return new Page(rows, null);
+        rows.remove(pageSize);
+        Data last = rows.get(pageSize - 1);
+        Object[] next = byId ? new Object[]{last.get("id")} : new Object[]{last.get(orderColumn), last.get("id")};
+        return new Page(rows, encodeToken(next));
+    }
 
-            return results;
-        }catch(SQLException | PatternSyntaxException e){
+
+    /**
+     * Reads the records of a page, seeking past the previous page
+     * <p>The seek is either a row-value comparison or an equality on the order column followed by a range on
+     * {@code id}, both of which SQLite can start an index range scan from, so the cost of a page does not grow with its depth</p>
+     * @param tableName , the name of the table to query from
+     * @param whereClause , the WHERE clause of the caller, {@code null} for every record
+     * @param params , the parameters of the WHERE clause
+     * @param seek , the condition selecting the records after the previous page, {@code null} for the first page
+     * @param order , the ORDER BY clause
+     * @param limit , the maximum number of records
+     * @param seekParams , the parameters of the seek condition
+     * @return {@code List<Data>} of the records, or {@code null} if the query failed
+     */
+    private static List<Data> pageRows(String tableName, String whereClause, Object[] params, String seek, String order, int limit, Object... seekParams){
+        StringBuilder sql = new StringBuilder("SELECT * FROM ").append(tableName);
+        List<Object> bound = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        if(whereClause != null && !whereClause.trim().equals("")){
+            conditions.add("(" + whereClause + ")");
+            for(Object param : params)
+                bound.add(param);
+        }
+        if(seek != null){
+            conditions.add("(" + seek + ")");
+            for(Object param : seekParams)
+                bound.add(param);
+        }
+        if(!conditions.isEmpty())
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        sql.append(" ORDER BY ").append(order).append(" LIMIT ").append(limit);
+        return queryRows(tableName, sql.toString(), bound.toArray());
+    }
+
+
+    /**
+     * Returns a page of records from the specified table using {@code LIMIT} and {@code OFFSET}.
+     * <p>Unlike {@link #page(String, String, String, int, String, Object...) page()}, SQLite reads and skips every
+     * record before the offset, so deep pages get slower. It allows jumping to an arbitrary page.
+     * The token of the returned page is the offset of the next page.</p>
+     * @param tableName the name of the table to query from
+     * @param orderColumn the column the records are ordered by, then by {@code id}
+     * @param pageSize the maximum number of records in the page
+     * @param offset the number of records skipped
+     * @return The {@code Page} of records, or {@code null} if the query failed
+     */
+    public static Page pageOffset(String tableName, String orderColumn, int pageSize, long offset){
+        if(manager == null){
+            System.out.println("Connection is null, use the connect() function first");
+            return null;
+        }
+        if(orderColumn == null || !IDENTIFIER.matcher(orderColumn).matches()){
+            System.err.println("An invalid order column was passed to pageOffset(): " + orderColumn);
+            return null;
+        }
+        if(pageSize < 1 || offset < 0){
+            System.err.println("The page size must be at least 1 and the offset must not be negative");
+            return null;
+        }
+        String sql = "SELECT * FROM " + tableName + " ORDER BY " + (orderColumn.equals("id") ? "id" : orderColumn + ", id")
+            + " LIMIT ? OFFSET ?";
+        List<Data> rows = queryRows(tableName, sql, new Object[]{pageSize + 1, offset});
+        if(rows == null)
+            return null;
+        if(rows.size() <= pageSize)
+            return new Page(rows, null);
+        rows.remove(pageSize);
+        return new Page(rows, String.valueOf(offset + pageSize));
+    }
+
+
+    /**
+     * Encodes the position of the last record of a page into a token
+     * @param position , the values of the order column and {@code id}
+     * @return {@code String} of the token
+     */
+    private static String encodeToken(Object[] position){
+        JsonArray array = new JsonArray();
+        for(Object value : position){
+            if(value == null)
+                array.add((JsonElement) null);
+            else if(value instanceof Number)
+                array.add((Number) value);
+            else if(value instanceof Boolean)
+                array.add((Boolean) value);
+            else
+                array.add(value.toString());
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(array.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    /**
+     * Decodes the position carried by a token
+     * @param token , the token of a page
+     * @param length , the number of values expected
+     * @return {@code Object[]} of the values, or {@code null} if the token is invalid
+     */
+    private static Object[] decodeToken(String token, int length){
+        try{
+            JsonElement element = JsonParser.parseString(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+            if(!element.isJsonArray() || element.getAsJsonArray().size() != length)
+                return null;
+            Object[] position = new Object[length];
+            for(int i=0; i < length; i++){
+                JsonElement value = element.getAsJsonArray().get(i);
+                if(value.isJsonNull())
+                    continue;
+                if(!value.isJsonPrimitive())
+                    return null;
+                JsonPrimitive primitive = value.getAsJsonPrimitive();
+                if(primitive.isBoolean())
+                    position[i] = primitive.getAsBoolean();
+                else if(primitive.isNumber()){
+                    String number = primitive.getAsString();
+                    boolean integral = number.indexOf('.') < 0 && number.indexOf('e') < 0 && number.indexOf('E') < 0;
+                    position[i] = integral ? (Object) primitive.getAsLong() : (Object) primitive.getAsDouble();
+                }
+                else
+                    position[i] = primitive.getAsString();
+            }
+            return position;
+        }catch(RuntimeException e){
+            return null;
+        }
+    }
+
+
+    /**
+     * Retrieves only the given columns of a record by id
+     * <p>Unlike {@link #get(String, String) get()}, which reads every column, only the listed columns are read and
+     * copied, which avoids loading large columns that are not needed</p>
+     * @param table the name of the table
+     * @param id the id of the desired record
+     * @param columns the names of the columns to read
+     * @return A {@code Data} object containing the listed columns of the record, or {@code null} if it was not found
+     */
+    public static Data get(String table, String id, List<String> columns){
+        if(manager == null){
+            System.out.println("Connection is null, use the connect() function first");
+            return null;
+        }
+        if (id == null || id.trim().isEmpty()) {
+            System.out.println("The id: " + id + " is invalid");
+            return null;
+        }
+        String projection = projection(columns);
+        if(projection == null)
+            return null;
+        try{
+            List<Data> rows = query(table, "SELECT " + projection + " FROM " + table + " WHERE id = ?", new Object[]{id});
+            if(!rows.isEmpty())
+                return rows.get(0);
+        }catch(SQLException e){
+            System.err.println("Database error while retrieving from " + table + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+
+    /**
+     * Retrieves only the given columns of every record in a table
+     * @param tableName the name of the table to query from
+     * @param columns the names of the columns to read
+     * @return {@code List<Data>} of the listed columns of each record, or {@code null} if the query failed
+     * @see #getAll(String, List, String, Object...)
+     */
+    public static List<Data> getAll(String tableName, List<String> columns){
+        return getAll(tableName, columns, (String) null);
+    }
+
+
+    /**
+     * Retrieves only the given columns of the records matching a WHERE clause and typed parameters
+     * <pre>{@code
+     * List<Data> names = getAll("Articles", List.of("id", "title"), "author = ?", "bob");
+     * }</pre>
+     * @param tableName the name of the table to query from
+     * @param columns the names of the columns to read
+     * @param whereClause the WHERE clause of the SQL statement, {@code null} for every record
+     * @param params the parameters to bind to the WHERE clause placeholders
+     * @return {@code List<Data>} of the listed columns of each matching record, or {@code null} if the query failed
+     */
+    public static List<Data> getAll(String tableName, List<String> columns, String whereClause, Object... params){
+        if(manager == null){
+            System.out.println("Connection is null, use the connect() function first");
+            return null;
+        }
+        if(tableName == null || tableName.trim().equals("")){
+            System.err.println("Invalid Table name");
+            return null;
+        }
+        String projection = projection(columns);
+        if(projection == null)
+            return null;
+        String sql = "SELECT " + projection + " FROM " + tableName;
+        if(whereClause != null && !whereClause.trim().equals("")){
+            if(whereClause.chars().filter(ch -> ch == '?').count() != params.length){
+                System.err.println("Error in paramters. The number of values does not match the number of '?'");
+                return null;
+            }
+            sql += " WHERE " + whereClause;
+        }
+        else if(params.length > 0){
+            System.err.println("Error in paramters. Parameters were passed without a 'Where Clause'");
+            return null;
+        }
+        return queryRows(tableName, sql, params);
+    }
+
+
+    /**
+     * Joins column names into the column list of a {@code SELECT}, checking that each is a plain identifier
+     * @param columns , the names of the columns
+     * @return {@code String} of the column list, or {@code null} if the list is empty or a name is invalid
+     */
+    private static String projection(List<String> columns){
+        if(columns == null || columns.isEmpty()){
+            System.err.println("No columns were passed to read");
+            return null;
+        }
+        for(String column : columns){
+            if(column == null || !IDENTIFIER.matcher(column).matches()){
+                System.err.println("An invalid column name was passed: " + column);
+                return null;
+            }
+        }
+        return String.join(", ", columns);
+    }
+
+
+    /**
+     * Retrieves a record by id, mapped straight into an instance of a class or record
+     * <p>Columns are read with the {@code ResultSet} getter matching each field's type, without going through a
+     * {@link Data} map or converting values to strings. Typed reads are not answered from the query cache.</p>
+     * @param <T> the type of the record
+     * @param table the name of the table
+     * @param id the id of the desired record
+     * @param type the class or record to map the row into, matching columns to fields by name
+     * @return The record, or {@code null} if it was not found or could not be mapped
+     */
+    public static <T> T get(String table, String id, Class<T> type){
+        if(manager == null){
+            System.out.println("Connection is null, use the connect() function first");
+            return null;
+        }
+        if (id == null || id.trim().isEmpty()) {
+            System.out.println("The id: " + id + " is invalid");
+            return null;
+        }
+        try{
+            List<T> rows = queryAs("SELECT * FROM " + table + " WHERE id = ?", new Object[]{id}, type);
+            return rows.isEmpty() ? null : rows.get(0);
+        }catch(SQLException | IllegalArgumentException e){
+            System.err.println("Database error while retrieving from " + table + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+
+    /**
+     * Retrieves all records of a table, each mapped straight into an instance of a class or record
+     * @param <T> the type of the records
+     * @param tableName the name of the table to query from
+     * @param type the class or record to map each row into
+     * @return {@code List<T>} of all records, or {@code null} if the query failed
+     * @see #get(String, String, Class)
+     */
+    public static <T> List<T> getAll(String tableName, Class<T> type){
+        if(manager == null){
+            System.out.println("Connection is null, use the connect() function first");
+            return null;
+        }
+        if(tableName == null || tableName.trim().equals("")){
+            System.err.println("Invalid Table name");
+            return null;
+        }
+        try{
+            return queryAs("SELECT * FROM " + tableName, new Object[0], type);
+        }catch(SQLException | IllegalArgumentException e){
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+
+    /**
+     * Retrieves the records matching a WHERE clause and typed parameters, each mapped straight into an instance of a class or record
+     * <pre>{@code
+     * List<User> adults = getAll("User", "age >= ?", User.class, 18);
+     * }</pre>
+     * @param <T> the type of the records
+     * @param tableName the name of the table to query from
+     * @param whereClause the WHERE clause of the SQL statement (e.g. "username = ? AND age > ?")
+     * @param type the class or record to map each row into
+     * @param params the parameters to bind to the WHERE clause placeholders
+     * @return {@code List<T>} of each matching record, or {@code null} if the query failed
+     * @see #get(String, String, Class)
+     */
+    public static <T> List<T> getAll(String tableName, String whereClause, Class<T> type, Object... params){
+        if(manager == null){
+            System.out.println("Connection is null, use the connect() function first");
+            return null;
+        }
+        if(whereClause == null || whereClause.trim().equals("")){
+            System.err.println("An invalid 'Where Clause' was passed to getAll()");
+            return null;
+        }
+        if(whereClause.chars().filter(ch -> ch == '?').count() != params.length){
+            System.err.println("Error in paramters. The number of values does not match the number of '?'");
+            return null;
+        }
+        try{
+            return queryAs("SELECT * FROM " + tableName + " WHERE " + whereClause, params, type);
+        }catch(SQLException | IllegalArgumentException e){
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+
+    /**
+     * Returns the query plan SQLite chooses for a WHERE clause and typed parameters, e.g. to check that an index is used
+     * <p>Each line is the detail of one step of {@code EXPLAIN QUERY PLAN}, such as
+     * {@code SEARCH User USING INDEX idx_age (age>?)} or {@code SCAN User}</p>
+     * @param tableName the name of the table to query from
+     * @param whereClause the WHERE clause of the SQL statement
+     * @param params the parameters to bind to the WHERE clause placeholders
+     * @return {@code List<String>} of the steps of the plan, or {@code null} if the query is invalid
+     */
+    public static List<String> explain(String tableName, String whereClause, Object... params){
+        if(manager == null){
+            System.out.println("Connection is null, use the connect() function first");
+            return null;
+        }
+        String sql = "EXPLAIN QUERY PLAN SELECT * FROM " + tableName
+            + (whereClause == null || whereClause.trim().equals("") ? "" : " WHERE " + whereClause);
+        try(ConnectionManager.Lease lease = manager.reader();
+            PreparedStatement statement = lease.connection().prepareStatement(sql)){
+            bind(statement, params);
+            List<String> plan = new ArrayList<>();
+            try(ResultSet resultSet = statement.executeQuery()){
+                while(resultSet.next())
+                    plan.add(resultSet.getString("detail"));
+            }
+            return plan;
+        }catch(SQLException e){
             e.printStackTrace();
             return null;
         }
     }
 
 
+    /**
+     * Binds each parameter to the statement with the JDBC setter matching its type
+     * <p>Integers, longs, floating point numbers, booleans, strings, byte arrays and {@code BigDecimal} use their
+     * dedicated setters, enums and characters are bound as strings, {@code null} as SQL {@code NULL} and any other
+     * value through {@code setObject()}</p>
+     * @param statement , the statement to bind
+     * @param params , the parameters, in the order of the placeholders
+     * @throws SQLException if a parameter could not be bound
+     */
+    static void bind(PreparedStatement statement, Object[] params) throws SQLException {
+        for(int i=0; i < params.length; i++){
+            Object param = params[i];
+            int index = i+1;
+            if(param == null)
+                statement.setNull(index, Types.NULL);
+            else if(param instanceof Integer || param instanceof Short || param instanceof Byte)
+                statement.setInt(index, ((Number) param).intValue());
+            else if(param instanceof Long)
+                statement.setLong(index, (Long) param);
+            else if(param instanceof Double || param instanceof Float)
+                statement.setDouble(index, ((Number) param).doubleValue());
+            else if(param instanceof Boolean)
+                statement.setBoolean(index, (Boolean) param);
+            else if(param instanceof String)
+                statement.setString(index, (String) param);
+            else if(param instanceof byte[])
+                statement.setBytes(index, (byte[]) param);
+            else if(param instanceof BigDecimal)
+                statement.setBigDecimal(index, (BigDecimal) param);
+            else if(param instanceof Enum<?>)
+                statement.setString(index, ((Enum<?>) param).name());
+            else if(param instanceof Character)
+                statement.setString(index, param.toString());
+            else
+                statement.setObject(index, param);
+        }
+    }
+
+
     /**
      * Accepts the name of a table and returns all records in that table as {@code List<Data>}
      * @param tableName the name of the table to query from
      * @return {@code List<Data>} of all records
      */
-    public List<Data> getAll(String tableName){
-        if(connection == null){
-            System.out.println("Connection is null, use the connect() function or set the connection's value through Database.connection = ...");
+    public static List<Data> getAll(String tableName){
+        if(manager == null){
+            System.out.println("Connection is null, use the connect() function first");
             return null;
         }
         if(tableName == null || tableName.trim().equals("")){
             System.err.println("Invalid Table name");
             return null;
         }
-        List<Data> results = new ArrayList<>();
         try{
-            Statement statement = connection.createStatement();
-            ResultSet resultSet = statement.executeQuery( "SELECT * FROM " + tableName);
-            while(resultSet.next()){
-                ResultSetMetaData metaData = resultSet.getMetaData();
-                Data record = new Data();
-                for(int i=1; i <= metaData.getColumnCount(); i++)
-                    record.put(metaData.getColumnName(i), resultSet.getObject(i));
-                results.add(record);
-            }
-            return results;
+            return query(tableName, "SELECT * FROM " + tableName, new Object[0]);
         }catch (SQLException e){
             e.printStackTrace();
             return null;
@@ -367,25 +1152,436 @@ public class Database {
 
 
     /**
-     * Maps Java field types to their corresponding SQLite data types.
-     *
-     * @param type , the Java class type
-     * @return {@code String} the equivalent SQLite type as a String
-     */
-    private static String mapJavaTypeToSQL(Class<?> type) {
-        if (type == String.class)
-            return "TEXT";
-        else if (type == int.class || type == Integer.class)
-            return "INTEGER";
-        else if (type == long.class || type == Long.class)
-            return "BIGINT";
-        else if (type == float.class || type == Float.class)
-            return "REAL";
-        else if (type == double.class || type == Double.class)
-            return "DOUBLE";
-        else if (type == boolean.class || type == Boolean.class)
-            return "BOOLEAN";
-        return "TEXT";
-    }
-
-}
+     * Streams all records in the specified table, reading them from the database as the stream is consumed.
+     * @param tableName the name of the table to query from
+     * @param fetchSize the number of rows the driver reads ahead, {@code 0} for its default
+     * @return {@code Stream<Data>} of all records, which must be closed, or {@code null} if the query failed
+     * @see #stream(String, String, int, String...)
+     */
+    public static Stream<Data> stream(String tableName, int fetchSize){
+        if(manager == null){
+            System.out.println("Connection is null, use the connect() function first");
+            return null;
+        }
+        if(tableName == null || tableName.trim().equals("")){
+            System.err.println("Invalid Table name");
+            return null;
+        }
+        return openStream(tableName, "SELECT * FROM " + tableName, fetchSize);
+    }
+
+
+    /**
+     * Streams the records from the specified table that match the provided WHERE clause and values.
+     * <p>Unlike {@link #getAll(String, String, String...) getAll()}, rows are read from the live result set as the stream
+     * is consumed, so memory stays flat no matter how many rows match. The stream holds a database connection
+     * and its cursor until it is closed, so it should be used in a try-with-resources block:</p>
+     * <pre>{@code
+     * try(Stream<Data> rows = Database.stream("Audit", "level = ?", 500, "error")){
+     *     rows.limit(100).forEach(System.out::println);
+     * }
+     * }</pre>
+     * <p>The connection is also released once the last row has been read. An error while reading rows is thrown
+     * as an {@code IllegalStateException}.</p>
+     * @param tableName the name of the table to query from
+     * @param whereClause the WHERE clause of the SQL statement (e.g. "username = ? AND age > ?")
+     * @param fetchSize the number of rows the driver reads ahead, {@code 0} for its default
+     * @param values the values to substitute into the WHERE clause placeholders
+     * @return {@code Stream<Data>} of each matching record, which must be closed, or {@code null} if the query failed
+     */
+    public static Stream<Data> stream(String tableName, String whereClause, int fetchSize, String... values){
+        if(manager == null){
+            System.out.println("Connection is null, use the connect() function first");
+            return null;
+        }
+        if(whereClause == null || whereClause.trim().equals("")){
+            System.err.println("An invalid 'Where Clause' was passed to stream()");
+            return null;
+        }
+        if(values == null){
+            System.err.println("An invalid value was passed to stream()");
+            return null;
+        }
+        for(String value : values){
+            if(value == null || value.trim().equals("")){
+                System.err.println("An invalid value was passed to stream()");
+                return null;
+            }
+        }
+        if(whereClause.chars().filter(ch -> ch == '?').count() != values.length){
+            System.err.println("Error in paramters. The number of values does not match the number of '?'");
+            return null;
+        }
+        return openStream(tableName, "SELECT * FROM " + tableName + " WHERE " + whereClause, fetchSize, values);
+    }
+
+
+    /**
+     * Runs a query on a reader connection and wraps its result set in a stream that releases them when closed
+     * <p>Serves as a helper for {@link #stream(String, String, int, String...) stream()}. The statement is not taken
+     * from the statement cache, since its cursor stays open for as long as the stream.</p>
+     * @param tableName , the name of the table, for error messages
+     * @param sql , the query to run
+     * @param fetchSize , the number of rows the driver reads ahead
+     * @param values , the values of the query's placeholders
+     * @return {@code Stream<Data>} of each row, or {@code null} if the query failed
+     */
+    private static Stream<Data> openStream(String tableName, String sql, int fetchSize, String... values){
+        ConnectionManager.Lease lease = null;
+        PreparedStatement statement = null;
+        try{
+            lease = manager.reader();
+            statement = lease.connection().prepareStatement(sql);
+            statement.setFetchSize(Math.max(0, fetchSize));
+            for(int i=0; i < values.length; i++)
+                statement.setString(i+1, values[i]);
+            Cursor cursor = new Cursor(tableName, lease, statement, statement.executeQuery());
+            return StreamSupport.stream(cursor, false).onClose(cursor::close);
+        }catch(SQLException e){
+            e.printStackTrace();
+            try{
+                if(statement != null)
+                    statement.close();
+            }catch(SQLException close){
+                close.printStackTrace();
+            }
+            if(lease != null)
+                lease.close();
+            return null;
+        }
+    }
+
+
+    /**
+     * Runs a query on a reader connection, answering it from the query cache when possible
+     * @param table , the table the query reads, for the query cache
+     * @param sql , the query
+     * @param params , the parameters to bind
+     * @return {@code List<Data>} of the rows
+     * @throws SQLException if the query failed
+     */
+    private static List<Data> query(String table, String sql, Object[] params) throws SQLException {
+        List<Data> cached = queryCache.get(table, sql, params);
+        if(cached != null)
+            return cached;
+        long version = queryCache.version();
+        try(ConnectionManager.Lease lease = manager.reader()){
+            PreparedStatement statement = lease.statements().prepare(sql);
+            bind(statement, params);
+            try(ResultSet resultSet = statement.executeQuery()){
+                List<Data> rows = readRows(resultSet);
+                queryCache.put(table, sql, params, rows, version);
+                return rows;
+            }
+        }
+    }
+
+
+    /**
+     * Runs a query on a reader connection and maps each row into an instance of a class or record
+     * @param sql , the query
+     * @param params , the parameters to bind
+     * @param type , the class or record to map each row into
+     * @return {@code List<T>} of the mapped rows
+     * @throws SQLException if the query failed
+     * @throws IllegalArgumentException if the class cannot be instantiated
+     */
+    private static <T> List<T> queryAs(String sql, Object[] params, Class<T> type) throws SQLException {
+        try(ConnectionManager.Lease lease = manager.reader()){
+            PreparedStatement statement = lease.statements().prepare(sql);
+            bind(statement, params);
+            try(ResultSet resultSet = statement.executeQuery()){
+                RowMapper<T> mapper = RowMapper.of(type, resultSet.getMetaData());
+                List<T> rows = new ArrayList<>();
+                while(resultSet.next())
+                    rows.add(mapper.map(resultSet));
+                return rows;
+            }
+        }
+    }
+
+
+    /**
+     * Runs a query like {@link #query(String, String, Object[]) query()}, printing any error
+     * @param table , the table the query reads
+     * @param sql , the query
+     * @param params , the parameters to bind
+     * @return {@code List<Data>} of the rows, or {@code null} if the query failed
+     */
+    private static List<Data> queryRows(String table, String sql, Object[] params){
+        try{
+            return query(table, sql, params);
+        }catch(SQLException e){
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+
+    /**
+     * Reads every remaining row of a result set
+     * <p>Rows are compact {@link RowData} sharing the column names of the result set, with numbers stored unboxed</p>
+     * @param resultSet , the result set to read, positioned before its first remaining row
+     * @return {@code List<Data>} of each row
+     * @throws SQLException if the rows could not be read
+     */
+    private static List<Data> readRows(ResultSet resultSet) throws SQLException {
+        List<Data> results = new ArrayList<>();
+        RowData.Shape shape = RowData.Shape.of(resultSet.getMetaData());
+        while(resultSet.next())
+            results.add(RowData.read(resultSet, shape));
+        return results;
+    }
+
+
+    /**
+     * Takes the writer connection of the current database
+     * <p>Serves as a helper for {@link AsyncDatabase}, which commits several writes together</p>
+     * @return The {@code Lease} of the writer, which must be closed
+     * @throws SQLException if there is no connection
+     */
+    static ConnectionManager.Lease writer() throws SQLException {
+        ConnectionManager current = manager;
+        if(current == null)
+            throw new SQLException("Connection is null, use the connect() function first");
+        return current.writer();
+    }
+
+
+    /**
+     * Drops the cached query results of a table after a write committed outside of this class' write methods
+     * @param table , the table that was written
+     */
+    static void tableWritten(String table){
+        queryCache.invalidate(table);
+    }
+
+
+    /**
+     * Sets the approximate memory budget of the query result cache, which is disabled by default
+     * <p>With a budget, the rows returned by {@code get()}, {@code getAll()} and {@code page()} are cached by table, SQL
+     * and parameters, and returned as copies when the same query runs again. They are dropped whenever their table is
+     * written by {@code insert()}, {@code insertAll()}, {@code deleteAll()}, {@code createTable()} or {@code dropTable()}.
+     * Writes made outside of this class are not seen by the cache.</p>
+     * @param bytes , the budget in bytes, {@code 0} to disable and clear the cache
+     */
+    public static void setQueryCacheBudget(long bytes){
+        queryCache.setMaxWeight(bytes);
+        if(bytes <= 0)
+            queryCache.invalidateAll();
+    }
+
+
+    /**
+     * Returns the query result cache, e.g. to read its hit rate and the memory it holds
+     * @return The {@code QueryCache}
+     */
+    public static QueryCache getQueryCache(){
+        return queryCache;
+    }
+
+
+    /**
+     * Sets the maximum number of prepared statements kept open for reuse on each connection
+     * <p>The least recently used statements are closed when the limit is exceeded</p>
+     * @param size , the maximum number of statements, at least 1
+     */
+    public static void setStatementCacheSize(int size){
+        statementCacheSize = Math.max(1, size);
+        if(manager != null)
+            manager.setStatementCacheSize(statementCacheSize);
+    }
+
+
+    /**
+     * Returns the prepared statement cache of the writer connection, e.g. to read its hit, miss and eviction counts
+     * @return The {@code StatementCache}, or {@code null} if there is no connection
+     * @see #getStatementCaches()
+     */
+    public static StatementCache getStatementCache(){
+        if(manager == null)
+            return null;
+        return manager.statementCaches().get(0);
+    }
+
+
+    /**
+     * Returns the prepared statement caches of every connection, the writer's first followed by each reader's
+     * @return {@code List<StatementCache>} of the caches, or {@code null} if there is no connection
+     */
+    public static List<StatementCache> getStatementCaches(){
+        if(manager == null)
+            return null;
+        return manager.statementCaches();
+    }
+
+
+    /**
+     * A page of records returned by {@link Database#page(String, String, String, int, String, Object...) page()}
+     */
+    public static class Page {
+
+        private final List<Data> rows;
+        private final String nextToken;
+
+        /**
+         * Constructs a page
+         * @param rows , the records of the page
+         * @param nextToken , the token of the next page, {@code null} if this is the last page
+         */
+        public Page(List<Data> rows, String nextToken){
+            this.rows = rows;
+            this.nextToken = nextToken;
+        }
+
+        /**
+         * Returns the records of the page
+         * @return {@code List<Data>} of the records
+         */
+        public List<Data> getRows(){
+            return rows;
+        }
+
+        /**
+         * Returns the token to pass for the next page
+         * @return {@code String} of the token, {@code null} if this is the last page
+         */
+        public String getNextToken(){
+            return nextToken;
+        }
+
+        /**
+         * Returns whether there are records after this page
+         * @return {@code true} if there is a next page, {@code false} otherwise
+         */
+        public boolean hasNext(){
+            return nextToken != null;
+        }
+    }
+
+
+    /**
+     * The rows of an open result set, read one at a time for {@link Database#stream(String, String, int, String...) stream()}
+     * <p>Closing the cursor closes the result set and its statement and returns the connection. It happens at most once,
+     * either when the stream is closed or when the last row has been read.</p>
+     */
+    private static final class Cursor extends Spliterators.AbstractSpliterator<Data> {
+
+        private final String table;
+        private final ConnectionManager.Lease lease;
+        private final PreparedStatement statement;
+        private final ResultSet resultSet;
+        private final RowData.Shape shape;
+        private boolean closed = false;
+
+        Cursor(String table, ConnectionManager.Lease lease, PreparedStatement statement, ResultSet resultSet) throws SQLException {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.table = table;
+            this.lease = lease;
+            this.statement = statement;
+            this.resultSet = resultSet;
+            this.shape = RowData.Shape.of(resultSet.getMetaData());
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Data> action){
+            if(closed)
+                return false;
+            try{
+                if(!resultSet.next()){
+                    close();
+                    return false;
+                }
+                action.accept(RowData.read(resultSet, shape));
+                return true;
+            }catch(SQLException e){
+                close();
+                throw new IllegalStateException("Database error while streaming from " + table + ": " + e.getMessage(), e);
+            }
+        }
+
+        /**
+         * Releases the result set, its statement and the connection
+         */
+        void close(){
+            if(closed)
+                return;
+            closed = true;
+            try{
+                //Closing the statement closes its result set as well
+                statement.close();
+            }catch(SQLException e){
+                e.printStackTrace();
+            }finally{
+                lease.close();
+            }
+        }
+    }
+
+
+    /**
+     * The outcome of one batch written by {@link Database#insertAll(String, Iterator, int) insertAll()}
+     */
+    public static class BatchResult {
+
+        private final int index;
+        private final int records;
+        private final int inserted;
+        private final String error;
+
+        /**
+         * Constructs the result of a batch
+         * @param index , the position of the batch, starting at 0
+         * @param records , the number of records in the batch
+         * @param inserted , the number of rows inserted
+         * @param error , the reason the batch failed, {@code null} if it was committed
+         */
+        public BatchResult(int index, int records, int inserted, String error){
+            this.index = index;
+            this.records = records;
+            this.inserted = inserted;
+            this.error = error;
+        }
+
+        /**
+         * Returns the position of the batch, starting at 0
+         * @return {@code int} the index
+         */
+        public int getIndex(){
+            return index;
+        }
+
+        /**
+         * Returns the number of records in the batch
+         * @return {@code int} the number of records
+         */
+        public int getRecords(){
+            return records;
+        }
+
+        /**
+         * Returns the number of rows the batch inserted
+         * @return {@code int} the number of rows, {@code 0} if the batch failed
+         */
+        public int getInserted(){
+            return inserted;
+        }
+
+        /**
+         * Returns whether the batch was committed
+         * @return {@code true} if it was committed, {@code false} if it was rolled back
+         */
+        public boolean isSuccessful(){
+            return error == null;
+        }
+
+        /**
+         * Returns the reason the batch failed
+         * @return {@code String} of the error, {@code null} if it was committed
+         */
+        public String getError(){
+            return error;
+        }
+    }
+
+}
\ No newline at end of file
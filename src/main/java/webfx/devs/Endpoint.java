@@ -21,4 +21,13 @@ public @interface Endpoint {
      */
     public String name();
 
+    /**
+     * Whether the endpoint runs off the JavaFX application thread.
+     * <p>Asynchronous endpoints run on a virtual thread and the {@link Router} returns a javascript {@code Promise}
+     * to the caller, which resolves with the endpoint's return value as JSON, or rejects with the exception's message.</p>
+     * <p>They must not touch the {@code WebView} or other JavaFX nodes directly, use {@code Platform.runLater()} for that.</p>
+     * @return {@code true} to run asynchronously, {@code false} by default
+     */
+    public boolean async() default false;
+
 }
@@ -0,0 +1,87 @@
+package webfx.devs;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Loads the {@link Endpoint} index written by the {@link EndpointProcessor} at compile time.
+ * <p>Loading costs one class lookup per class that declares endpoints, rather than a scan of the whole package.</p>
+ */
+final class EndpointIndex {
+
+    /**
+     * The location of the index within the class output and packaged jar
+     */
+    static final String LOCATION = "META-INF/webfx/endpoints.idx";
+
+
+    private EndpointIndex(){}
+
+
+    /**
+     * Reads every endpoint index visible to the given class loader and resolves the listed methods.
+     * <p>Only methods whose class belongs to {@code packageName} (or one of its sub-packages) are returned,
+     * matching the scope of the runtime classpath scan.</p>
+     * @param loader , the class loader used to find the index and the endpoint classes
+     * @param packageName , the package the endpoints must belong to, {@code null} or empty to accept every package
+     * @return A {@code Set<Method>} of endpoints, or {@code null} if no index exists or none of its endpoints belong to the package
+     */
+    static Set<Method> load(ClassLoader loader, String packageName){
+        try{
+            Enumeration<URL> indexes = loader.getResources(LOCATION);
+            if(!indexes.hasMoreElements())
+                return null;
+            Map<String, List<String[]>> byClass = new LinkedHashMap<>();
+            while(indexes.hasMoreElements()){
+                URL url = indexes.nextElement();
+                try(BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))){
+                    String line;
+                    while((line = reader.readLine()) != null){
+                        String[] entry = line.split("\t");
+                        if(entry.length != 3)
+                            continue;
+                        if(packageName != null && !packageName.isEmpty() && !entry[1].startsWith(packageName + "."))
+                            continue;
+                        byClass.computeIfAbsent(entry[1], k -> new ArrayList<>()).add(entry);
+                    }
+                }
+            }
+            Set<Method> methods = new HashSet<>();
+            for(Map.Entry<String, List<String[]>> group : byClass.entrySet()){
+                Class<?> clazz;
+                try{
+                    clazz = Class.forName(group.getKey(), false, loader);
+                } catch (ClassNotFoundException e){
+                    System.out.println("The endpoint index lists: " + group.getKey() + " but it could not be loaded, rebuild the project to refresh the index");
+                    continue;
+                }
+                for(Method method : clazz.getDeclaredMethods()){
+                    Endpoint endpoint = method.getAnnotation(Endpoint.class);
+                    if(endpoint == null)
+                        continue;
+                    for(String[] entry : group.getValue()){
+                        if(entry[0].equals(endpoint.name()) && entry[2].equals(method.getName()))
+                            methods.add(method);
+                    }
+                }
+            }
+            //An index without entries for this package is stale or belongs to a dependency, so the package is scanned instead
+            return methods.isEmpty() ? null : methods;
+        } catch (IOException e){
+            e.printStackTrace();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package webfx.devs;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+
+/**
+ * A direct invoker for an {@link Endpoint} method, bound once when the {@link Router} maps its endpoints.
+ * <p>Public methods are bound through {@code LambdaMetafactory} into a generated functional interface, so calls
+ * carry no reflective argument handling. Methods that are not accessible that way are bound to an exact
+ * {@code MethodHandle} instead.</p>
+ */
+public final class EndpointInvoker {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final Method method;
+    private final boolean acceptsData;
+    private final boolean async;
+    private final Runnable runnable;
+    private final Consumer<Data> consumer;
+    private final Supplier<Object> supplier;
+    private final Function<Data, Object> function;
+    private final MethodHandle handle;
+
+
+    private EndpointInvoker(Method method, Object target, MethodHandle handle){
+        this.method = method;
+        this.acceptsData = method.getParameterCount() == 1;
+        Endpoint endpoint = method.getAnnotation(Endpoint.class);
+        this.async = endpoint != null && endpoint.async();
+        this.handle = handle;
+        this.runnable = target instanceof Runnable r ? r : null;
+        this.consumer = target instanceof Consumer<?> ? castConsumer(target) : null;
+        this.supplier = target instanceof Supplier<?> ? castSupplier(target) : null;
+        this.function = target instanceof Function<?, ?> ? castFunction(target) : null;
+    }
+
+
+    /**
+     * Checks whether a method has a signature that the {@link Router} can call.
+     * <p>Endpoints must be static and either have no parameters or a single parameter of type {@link Data}</p>
+     * @param method , the annotated method
+     * @return {@code null} if the signature is valid, otherwise a message describing the problem
+     */
+    public static String validate(Method method){
+        if(!Modifier.isStatic(method.getModifiers()))
+            return "Please ensure that the method that " + method.getName() + " annotates is static";
+        Class<?>[] parameters = method.getParameterTypes();
+        if(parameters.length > 1 || (parameters.length == 1 && parameters[0] != Data.class))
+            return "Please ensure that it either has no parameters or it's only parameter is of type: Data";
+        return null;
+    }
+
+
+    /**
+     * Binds a validated endpoint method into a direct invoker
+     * @param method , a method that passes {@link #validate(Method) validate()}
+     * @return The {@code EndpointInvoker} for the method
+     * @throws IllegalArgumentException if the method's signature is invalid or it could not be bound
+     */
+    public static EndpointInvoker bind(Method method) throws IllegalArgumentException {
+        String error = validate(method);
+        if(error != null)
+            throw new IllegalArgumentException(error);
+        MethodHandle handle;
+        try{
+            method.setAccessible(true);
+            handle = LOOKUP.unreflect(method);
+        } catch (IllegalAccessException | RuntimeException e){
+            throw new IllegalArgumentException("The endpoint method " + method.getName() + " could not be accessed", e);
+        }
+        try{
+            return new EndpointInvoker(method, metafactory(method, handle), null);
+        } catch (Throwable e){
+            MethodHandle exact = handle.asType(MethodType.methodType(Object.class, method.getParameterTypes()));
+            return new EndpointInvoker(method, null, exact);
+        }
+    }
+
+
+    /**
+     * Generates a functional interface instance that calls the method directly
+     * @param method , the endpoint method
+     * @param handle , the direct handle of the method
+     * @return A {@code Runnable}, {@code Consumer}, {@code Supplier} or {@code Function} depending on the signature
+     * @throws Throwable if the method cannot be linked from this class, e.g. it is not public
+     */
+    private static Object metafactory(Method method, MethodHandle handle) throws Throwable {
+        boolean returnsVoid = method.getReturnType() == void.class;
+        Class<?> returnType = method.getReturnType().isPrimitive() && !returnsVoid ? MethodType.methodType(method.getReturnType()).wrap().returnType() : method.getReturnType();
+        Class<?> functionalType;
+        String name;
+        MethodType erased;
+        MethodType instantiated;
+        if(method.getParameterCount() == 0){
+            functionalType = returnsVoid ? Runnable.class : Supplier.class;
+            name = returnsVoid ? "run" : "get";
+            erased = returnsVoid ? MethodType.methodType(void.class) : MethodType.methodType(Object.class);
+            instantiated = MethodType.methodType(returnType);
+        }
+        else{
+            functionalType = returnsVoid ? Consumer.class : Function.class;
+            name = returnsVoid ? "accept" : "apply";
+            erased = returnsVoid ? MethodType.methodType(void.class, Object.class) : MethodType.methodType(Object.class, Object.class);
+            instantiated = MethodType.methodType(returnType, Data.class);
+        }
+        CallSite site = LambdaMetafactory.metafactory(LOOKUP, name, MethodType.methodType(functionalType), erased, handle, instantiated);
+        return site.getTarget().invoke();
+    }
+
+
+    /**
+     * Calls the endpoint.
+     * <p>Exceptions thrown by the endpoint are passed on unchanged</p>
+     * @param data , the data passed to endpoints with a {@code Data} parameter, ignored otherwise
+     * @return The value returned by the endpoint, {@code null} for {@code void} endpoints
+     * @throws Exception any exception thrown by the endpoint
+     */
+    public Object invoke(Data data) throws Exception {
+        if(runnable != null){
+            runnable.run();
+            return null;
+        }
+        if(consumer != null){
+            consumer.accept(data);
+            return null;
+        }
+        if(supplier != null)
+            return supplier.get();
+        if(function != null)
+            return function.apply(data);
+        try{
+            return acceptsData ? (Object) handle.invokeExact(data) : (Object) handle.invokeExact();
+        } catch (Exception | Error e){
+            throw e;
+        } catch (Throwable e){
+            throw new RuntimeException(e);
+        }
+    }
+
+
+    /**
+     * Returns whether the endpoint has a single {@link Data} parameter
+     * @return {@code true} if it accepts data, {@code false} if it has no parameters
+     */
+    public boolean acceptsData(){
+        return acceptsData;
+    }
+
+
+    /**
+     * Returns whether the endpoint is declared with {@code @Endpoint(async = true)}
+     * @return {@code true} if it should run off the JavaFX application thread, {@code false} otherwise
+     */
+    public boolean isAsync(){
+        return async;
+    }
+
+
+    /**
+     * Returns the endpoint method this invoker calls
+     * @return The {@code Method}
+     */
+    public Method getMethod(){
+        return method;
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private static Consumer<Data> castConsumer(Object target){
+        return (Consumer<Data>) target;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> castSupplier(Object target){
+        return (Supplier<Object>) target;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Data, Object> castFunction(Object target){
+        return (Function<Data, Object>) target;
+    }
+}
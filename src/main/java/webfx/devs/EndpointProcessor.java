@@ -0,0 +1,143 @@
+package webfx.devs;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+
+/**
+ * An annotation processor that builds the {@link Endpoint} index at compile time.
+ * <p>Every method annotated with {@code @Endpoint} is written to {@code META-INF/webfx/endpoints.idx} in the
+ * class output, which the {@link Router} loads instead of scanning the classpath on startup.</p>
+ * <p>The processor is registered through {@code META-INF/services}. From JDK 23 onwards annotation processing is no
+ * longer implicit, so either compile with {@code -proc:full} or list this library in the compiler's
+ * {@code annotationProcessorPaths}.</p>
+ * <p>Each line of the index has the form {@code name<TAB>binaryClassName<TAB>methodName}.</p>
+ * <p>When only some classes are recompiled, the endpoints of the other classes are kept from the existing index,
+ * as long as their class still exists.</p>
+ */
+//Every compilation is processed, so a recompiled class that no longer declares endpoints drops them from the index
+@SupportedAnnotationTypes("*")
+public class EndpointProcessor extends AbstractProcessor {
+
+    private final List<String> entries = new ArrayList<>();
+    //The binary names of every class compiled in this run, whose old index entries are replaced
+    private final Set<String> compiled = new HashSet<>();
+
+    /**
+     * Creates the processor, called by the compiler through the service loader
+     */
+    public EndpointProcessor(){
+        super();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion(){
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round){
+        for(Element root : round.getRootElements())
+            collectTypes(root);
+        for(Element element : round.getElementsAnnotatedWith(Endpoint.class)){
+            if(element.getKind() != ElementKind.METHOD)
+                continue;
+            ExecutableElement method = (ExecutableElement) element;
+            TypeElement owner = (TypeElement) method.getEnclosingElement();
+            String name = method.getAnnotation(Endpoint.class).name();
+            if(name.contains("\t") || name.contains("\n")){
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Endpoint names cannot contain tabs or line breaks", method);
+                continue;
+            }
+            if(!method.getModifiers().contains(Modifier.STATIC))
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "The endpoint: " + name + " must be static to be reached by the Router", method);
+            if(method.getParameters().size() > 1)
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "The endpoint: " + name + " should either have no parameters or a single parameter of type Data", method);
+            String className = processingEnv.getElementUtils().getBinaryName(owner).toString();
+            entries.add(name + "\t" + className + "\t" + method.getSimpleName());
+        }
+        if(round.processingOver())
+            writeIndex();
+        return false;
+    }
+
+
+    /**
+     * Records the binary name of a class and of the classes nested in it
+     * @param element , a class compiled in this run
+     */
+    private void collectTypes(Element element){
+        if(!(element instanceof TypeElement))
+            return;
+        compiled.add(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+        for(Element enclosed : element.getEnclosedElements())
+            collectTypes(enclosed);
+    }
+
+
+    /**
+     * Writes all collected endpoints to the index resource in the class output, along with the entries of the
+     * existing index whose classes were not recompiled and still exist
+     */
+    private void writeIndex(){
+        List<String> existing = readIndex();
+        List<String> merged = new ArrayList<>();
+        for(String entry : existing){
+            String[] parts = entry.split("\t");
+            if(parts.length == 3 && !compiled.contains(parts[1])
+                && processingEnv.getElementUtils().getTypeElement(parts[1].replace('$', '.')) != null)
+                merged.add(entry);
+        }
+        merged.addAll(entries);
+        if(merged.isEmpty() && existing.isEmpty())
+            return;
+        try{
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", EndpointIndex.LOCATION);
+            try(Writer writer = index.openWriter()){
+                for(String entry : merged)
+                    writer.write(entry + "\n");
+            }
+        } catch (IOException e){
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write the endpoint index: " + e.getMessage());
+        }
+    }
+
+
+    /**
+     * Reads the index left in the class output by a previous compilation
+     * @return {@code List<String>} of its lines, empty if there is no index
+     */
+    private List<String> readIndex(){
+        List<String> lines = new ArrayList<>();
+        try{
+            FileObject index = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", EndpointIndex.LOCATION);
+            try(BufferedReader reader = new BufferedReader(index.openReader(true))){
+                String line;
+                while((line = reader.readLine()) != null){
+                    if(!line.isEmpty())
+                        lines.add(line);
+                }
+            }
+        } catch (IOException | IllegalArgumentException e){
+            //No index was written before
+        }
+        return lines;
+    }
+}
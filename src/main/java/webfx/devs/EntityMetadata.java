@@ -0,0 +1,257 @@
+package webfx.devs;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * The persistence metadata of a class used as a table by the {@link Database}.
+ * <p>The columns, their {@code @Nullable}, {@code @Ignore}, {@code @Indexed} and {@code @Unique} flags, the SQL fragments built from them and the field
+ * accessors are worked out once per class and shared by every write.</p>
+ */
+final class EntityMetadata {
+
+    private static final ClassValue<EntityMetadata> CACHE = new ClassValue<>(){
+        @Override
+        protected EntityMetadata computeValue(Class<?> type){
+            return new EntityMetadata(type);
+        }
+    };
+
+    private final Column[] columns;
+    private final String columnDefinitions;
+    private final String insertColumns;
+    private final Index[] indexes;
+    private final ConcurrentHashMap<String, String> insertSql = new ConcurrentHashMap<>();
+
+
+    private EntityMetadata(Class<?> clazz){
+        List<Column> columns = new ArrayList<>();
+        for(Field field : clazz.getDeclaredFields()){
+            if(!field.isAnnotationPresent(Ignore.class))
+                columns.add(new Column(clazz, field));
+        }
+        this.columns = columns.toArray(new Column[0]);
+        StringBuilder definitions = new StringBuilder();
+        StringBuilder names = new StringBuilder();
+        StringBuilder placeholders = new StringBuilder();
+        for(Column column : this.columns){
+            if(definitions.length() > 0){
+                definitions.append(",");
+                names.append(",");
+                placeholders.append(",");
+            }
+            definitions.append(column.name + " " + column.sqlType + (column.nullable ? "" : " NOT NULL"));
+            names.append(column.name);
+            placeholders.append("?");
+        }
+        this.columnDefinitions = definitions.toString();
+        this.insertColumns = " (" + names + ") VALUES (" + placeholders + ")";
+        this.indexes = indexes(clazz);
+    }
+
+
+    /**
+     * Groups the {@code @Indexed} and {@code @Unique} fields of a class into indexes, by kind and name
+     * @param clazz , the class mapped to a table
+     * @return {@code Index[]} of the indexes, in the order they are first declared
+     */
+    private static Index[] indexes(Class<?> clazz){
+        Map<String, List<Field>> groups = new LinkedHashMap<>();
+        for(Field field : clazz.getDeclaredFields()){
+            if(field.isAnnotationPresent(Ignore.class))
+                continue;
+            Indexed indexed = field.getAnnotation(Indexed.class);
+            if(indexed != null){
+                String name = indexed.name().isEmpty() ? field.getName() : indexed.name();
+                groups.computeIfAbsent("idx_" + name, key -> new ArrayList<>()).add(field);
+            }
+            Unique unique = field.getAnnotation(Unique.class);
+            if(unique != null){
+                String name = unique.name().isEmpty() ? field.getName() : unique.name();
+                groups.computeIfAbsent("uq_" + name, key -> new ArrayList<>()).add(field);
+            }
+        }
+        List<Index> indexes = new ArrayList<>();
+        for(Map.Entry<String, List<Field>> group : groups.entrySet()){
+            boolean unique = group.getKey().startsWith("uq_");
+            List<Field> fields = group.getValue();
+            fields.sort(Comparator.comparingInt(field -> unique ? field.getAnnotation(Unique.class).order() : field.getAnnotation(Indexed.class).order()));
+            String[] names = new String[fields.size()];
+            for(int i = 0; i < names.length; i++)
+                names[i] = fields.get(i).getName();
+            indexes.add(new Index(group.getKey().substring(group.getKey().indexOf('_') + 1), unique, names));
+        }
+        return indexes.toArray(new Index[0]);
+    }
+
+
+    /**
+     * Returns the metadata of a class, building it on first use
+     * @param clazz , the class mapped to a table
+     * @return The {@code EntityMetadata} of the class
+     */
+    static EntityMetadata of(Class<?> clazz){
+        return CACHE.get(clazz);
+    }
+
+
+    /**
+     * Returns the columns written for the class, in declaration order
+     * @return {@code Column[]} of the columns, shared and not to be modified
+     */
+    Column[] columns(){
+        return columns;
+    }
+
+
+    /**
+     * Returns the statement that creates a table for the class
+     * @param table , the name of the table
+     * @return {@code String} of the SQL
+     */
+    String createTableSql(String table){
+        return "CREATE TABLE IF NOT EXISTS " + table + " (id INTEGER PRIMARY KEY AUTOINCREMENT, " + columnDefinitions + ")";
+    }
+
+
+    /**
+     * Returns the statements that create the table's {@code @Indexed} and {@code @Unique} indexes, if they do not already exist
+     * <p>Index names are prefixed with the table's name, since SQLite index names are shared by the whole database</p>
+     * @param table , the name of the table
+     * @return {@code List<String>} of the SQL, empty if the class declares no index
+     */
+    List<String> createIndexSql(String table){
+        List<String> statements = new ArrayList<>(indexes.length);
+        for(Index index : indexes){
+            String name = (index.unique ? "uq_" : "idx_") + table + "_" + index.name;
+            statements.add("CREATE " + (index.unique ? "UNIQUE " : "") + "INDEX IF NOT EXISTS " + name
+                + " ON " + table + " (" + String.join(", ", index.columns) + ")");
+        }
+        return statements;
+    }
+
+
+    /**
+     * Returns the statement that inserts every column of the class, built once per table
+     * @param table , the name of the table
+     * @return {@code String} of the SQL
+     */
+    String insertSql(String table){
+        return insertSql.computeIfAbsent(table, name -> "INSERT INTO " + name + insertColumns);
+    }
+
+
+    /**
+     * Returns the statement that inserts only the columns whose value is not {@code null}
+     * @param table , the name of the table
+     * @param values , the value of each column, in the order of {@link #columns()}
+     * @return {@code String} of the SQL
+     */
+    String insertSql(String table, Object[] values){
+        StringBuilder names = new StringBuilder();
+        StringBuilder placeholders = new StringBuilder();
+        for(int i = 0; i < columns.length; i++){
+            if(values[i] == null)
+                continue;
+            if(names.length() > 0){
+                names.append(",");
+                placeholders.append(",");
+            }
+            names.append(columns[i].name);
+            placeholders.append("?");
+        }
+        return "INSERT INTO " + table + " (" + names + ") VALUES (" + placeholders + ")";
+    }
+
+
+    /**
+     * Maps Java field types to their corresponding SQLite data types.
+     *
+     * @param type , the Java class type
+     * @return {@code String} the equivalent SQLite type as a String
+     */
+    static String mapJavaTypeToSQL(Class<?> type) {
+        if (type == String.class)
+            return "TEXT";
+        else if (type == int.class || type == Integer.class)
+            return "INTEGER";
+        else if (type == long.class || type == Long.class)
+            return "BIGINT";
+        else if (type == float.class || type == Float.class)
+            return "REAL";
+        else if (type == double.class || type == Double.class)
+            return "DOUBLE";
+        else if (type == boolean.class || type == Boolean.class)
+            return "BOOLEAN";
+        return "TEXT";
+    }
+
+
+    /**
+     * An index over one or more columns of the class
+     */
+    private static final class Index {
+
+        final String name;
+        final boolean unique;
+        final String[] columns;
+
+        Index(String name, boolean unique, String[] columns){
+            this.name = name;
+            this.unique = unique;
+            this.columns = columns;
+        }
+    }
+
+
+    /**
+     * A single persisted field of the class
+     */
+    static final class Column {
+
+        final String name;
+        final String sqlType;
+        final Class<?> type;
+        final boolean nullable;
+        private final boolean isStatic;
+        private final VarHandle handle;
+        private final Field field;
+
+        Column(Class<?> owner, Field field){
+            this.name = field.getName();
+            this.type = field.getType();
+            this.sqlType = mapJavaTypeToSQL(type);
+            this.nullable = field.isAnnotationPresent(Nullable.class);
+            this.isStatic = Modifier.isStatic(field.getModifiers());
+            VarHandle handle = null;
+            try{
+                handle = MethodHandles.privateLookupIn(owner, MethodHandles.lookup()).unreflectVarHandle(field);
+            } catch (IllegalAccessException | RuntimeException e){
+                field.setAccessible(true);
+            }
+            this.handle = handle;
+            this.field = field;
+        }
+
+        /**
+         * Reads the field's value from a record
+         * @param record , an instance of the class
+         * @return The value of the field
+         * @throws IllegalAccessException if the field could not be read
+         */
+        Object get(Object record) throws IllegalAccessException {
+            if(handle == null)
+                return field.get(record);
+            return isStatic ? (Object) handle.get() : (Object) handle.get(record);
+        }
+    }
+}
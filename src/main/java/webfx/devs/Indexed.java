@@ -0,0 +1,29 @@
+package webfx.devs;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.ElementType;
+
+
+/**
+ * Used in classes that are meant to be treated as tables for a database.
+ * <p>Fields using this annotation get an index when their table is created, so lookups on them do not scan the table.
+ * Fields sharing the same {@code name} form a single composite index, with columns ordered by {@code order}.</p>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Indexed {
+
+    /**
+     * The name of the index, shared by the fields of a composite index. It is prefixed with {@code idx_<table>_} in the database.
+     * @return The name, the field's name if empty
+     */
+    String name() default "";
+
+    /**
+     * The position of the field within a composite index
+     * @return The position, lower first
+     */
+    int order() default 0;
+}
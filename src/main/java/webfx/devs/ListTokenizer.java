@@ -0,0 +1,176 @@
+package webfx.devs;
+
+import java.util.NoSuchElementException;
+
+
+/**
+ * Splits the text of a list of the form {@code "[val, val, val]"} into its elements, in a single pass.
+ * <p>Elements are separated by commas and trimmed, and a trailing comma does not add an empty element. An element
+ * starting with a double or single quote is read up to the matching quote, without the quotes, so it can contain
+ * commas and brackets, and its {@code \}-escapes are decoded. Quotes anywhere else, as in {@code don't}, are kept as
+ * they are. An element that is itself a list or object, e.g. {@code [1, 2]} or {@code {"a": 1}}, is returned whole,
+ * quotes included, so it can be parsed again.</p>
+ * <p>Serves as the parser of {@link DataManager#parseList(String, Class) parseList()}</p>
+ */
+final class ListTokenizer {
+
+    private final String text;
+    //The position of the closing bracket
+    private final int end;
+    private int position;
+    private boolean done;
+    //Reused to decode quoted elements
+    private final StringBuilder unquoted = new StringBuilder();
+
+
+    /**
+     * Creates a tokenizer over the text of a list
+     * @param text , the list, e.g. {@code "[a, \"b, c\", [1, 2]]"}
+     * @throws IllegalArgumentException if the text is not enclosed in {@code []}
+     */
+    ListTokenizer(String text){
+        String list = text.trim();
+        if(list.isEmpty() || list.charAt(0) != '[')
+            throw new IllegalArgumentException("Data did not start with a '['");
+        if(list.length() < 2 || list.charAt(list.length() - 1) != ']')
+            throw new IllegalArgumentException("Data did not end in ']'");
+        this.text = list;
+        this.end = list.length() - 1;
+        this.position = skipWhitespace(1);
+        this.done = position == end;
+    }
+
+
+    /**
+     * Returns whether there is another element
+     * @return {@code true} if there is, {@code false} at the end of the list
+     */
+    boolean hasNext(){
+        return !done;
+    }
+
+
+    /**
+     * Reads the next element
+     * @return {@code String} of the element, trimmed, or without its quotes if it is quoted
+     * @throws IllegalArgumentException if a quote or a nested list is not closed, or a quoted element is followed by more text
+     * @throws NoSuchElementException if there are no more elements
+     */
+    String next(){
+        if(done)
+            throw new NoSuchElementException();
+        int i = position;
+        String element;
+        if(i < end && (text.charAt(i) == '"' || text.charAt(i) == '\'')){
+            unquoted.setLength(0);
+            i = skipWhitespace(unquote(i) + 1);
+            if(i < end && text.charAt(i) != ',')
+                throw new IllegalArgumentException("Unexpected '" + text.charAt(i) + "' after a quoted value at " + i);
+            element = unquoted.toString();
+        }
+        else{
+            int start = i;
+            int depth = 0;
+            //The last non-blank character, as a quote only opens a string at the start of a nested value
+            char previous = ',';
+            for(; i < end; i++){
+                char c = text.charAt(i);
+                if(depth > 0 && (c == '"' || c == '\'') && (previous == '[' || previous == '{' || previous == ',' || previous == ':')){
+                    i = skipQuoted(i);
+                    previous = c;
+                    continue;
+                }
+                if(c == '[' || c == '{')
+                    depth++;
+                else if(c == ']' || c == '}'){
+                    if(--depth < 0)
+                        throw new IllegalArgumentException("Unexpected '" + c + "' at " + i);
+                }
+                else if(c == ',' && depth == 0)
+                    break;
+                if(!Character.isWhitespace(c))
+                    previous = c;
+            }
+            if(depth > 0)
+                throw new IllegalArgumentException("Unclosed list or object starting at " + start);
+            element = text.substring(start, i).trim();
+        }
+        if(i < end)
+            position = skipWhitespace(i + 1);
+        //A trailing comma does not start another element
+        done = i == end || position == end;
+        return element;
+    }
+
+
+    /**
+     * Appends the content of a quoted string to the builder, decoding its escapes
+     * @param open , the position of the opening quote
+     * @return {@code int} the position of the closing quote
+     */
+    private int unquote(int open){
+        char quote = text.charAt(open);
+        for(int i = open + 1; i < end; i++){
+            char c = text.charAt(i);
+            if(c == quote)
+                return i;
+            if(c != '\\' || i + 1 >= end){
+                unquoted.append(c);
+                continue;
+            }
+            c = text.charAt(++i);
+            if(c == 'n')
+                unquoted.append('\n');
+            else if(c == 't')
+                unquoted.append('\t');
+            else if(c == 'r')
+                unquoted.append('\r');
+            else if(c == 'b')
+                unquoted.append('\b');
+            else if(c == 'f')
+                unquoted.append('\f');
+            else if(c == 'u' && i + 4 < end){
+                try{
+                    unquoted.append((char) Integer.parseInt(text, i + 1, i + 5, 16));
+                    i += 4;
+                } catch (NumberFormatException e){
+                    unquoted.append(c);
+                }
+            }
+            else
+                unquoted.append(c);
+        }
+        throw new IllegalArgumentException("Unclosed quote starting at " + open);
+    }
+
+
+    /**
+     * Skips a quoted string within a nested list or object, which is kept as is
+     * @param open , the position of the opening quote
+     * @return {@code int} the position of the closing quote
+     */
+    private int skipQuoted(int open){
+        char quote = text.charAt(open);
+        for(int i = open + 1; i < end; i++){
+            char c = text.charAt(i);
+            if(c == '\\')
+                i++;
+            else if(c == quote)
+                return i;
+        }
+        throw new IllegalArgumentException("Unclosed quote starting at " + open);
+    }
+
+
+    /**
+     * Skips whitespace, up to the closing bracket
+     * @param from , the position to start at
+     * @return {@code int} the position of the next non-whitespace character
+     */
+    private int skipWhitespace(int from){
+        int i = from;
+        while(i < end && Character.isWhitespace(text.charAt(i)))
+            i++;
+        return i;
+    }
+}
@@ -0,0 +1,254 @@
+package webfx.devs;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+
+/**
+ * A thread-safe, least-recently-used cache bounded by the total weight of its values.
+ * <p>Each value is weighed once when it is added, e.g. by its size in bytes. When the total weight exceeds the budget,
+ * the least recently used entries are evicted. Values heavier than the whole budget are not cached.</p>
+ * <p>Hits, misses and evictions are counted so the cache's effectiveness can be checked at runtime.</p>
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public final class LruCache<K, V> {
+
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ToLongFunction<? super V> weigher;
+    private final Consumer<? super V> onRemoval;
+    private long maxWeight;
+    private long weight = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+
+    /**
+     * Creates a cache with the given budget
+     * @param maxWeight , the maximum total weight of the cached values
+     * @param weigher , returns the weight of a value
+     */
+    public LruCache(long maxWeight, ToLongFunction<? super V> weigher){
+        this(maxWeight, weigher, null);
+    }
+
+    /**
+     * Creates a cache with the given budget, and a callback for values leaving the cache
+     * @param maxWeight , the maximum total weight of the cached values
+     * @param weigher , returns the weight of a value
+     * @param onRemoval , called with each value that is evicted, invalidated or replaced, can be {@code null}
+     */
+    public LruCache(long maxWeight, ToLongFunction<? super V> weigher, Consumer<? super V> onRemoval){
+        this.maxWeight = Math.max(0, maxWeight);
+        this.weigher = weigher;
+        this.onRemoval = onRemoval;
+    }
+
+
+    /**
+     * Returns the value cached for the key, marking it as recently used
+     * @param key , the key to look up
+     * @return The cached value, or {@code null} if there is none
+     */
+    public synchronized V get(K key){
+        Entry<V> entry = entries.get(key);
+        if(entry == null){
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+
+    /**
+     * Caches a value, evicting the least recently used entries if the budget is exceeded
+     * <p>The removal callback is not called for the value passed in, even if it is too heavy to be cached.</p>
+     * @param key , the key of the value
+     * @param value , the value to cache, {@code null} values are not cached
+     * @return {@code true} if the value was cached, {@code false} if it is {@code null} or heavier than the budget
+     */
+    public synchronized boolean put(K key, V value){
+        if(value == null)
+            return false;
+        long valueWeight = weigher.applyAsLong(value);
+        Entry<V> previous = entries.remove(key);
+        if(previous != null){
+            weight -= previous.weight;
+            if(previous.value != value && onRemoval != null)
+                onRemoval.accept(previous.value);
+        }
+        if(valueWeight > maxWeight)
+            return false;
+        entries.put(key, new Entry<>(value, valueWeight));
+        weight += valueWeight;
+        evict();
+        return true;
+    }
+
+
+    /**
+     * Removes the value cached for a key
+     * @param key , the key to remove
+     * @return The value that was removed, or {@code null} if there was none
+     */
+    public synchronized V invalidate(K key){
+        Entry<V> entry = entries.remove(key);
+        removed(entry);
+        return entry == null ? null : entry.value;
+    }
+
+
+    /**
+     * Removes every value whose key matches the predicate
+     * @param predicate , the test applied to each key
+     */
+    public synchronized void invalidateIf(Predicate<? super K> predicate){
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while(iterator.hasNext()){
+            Map.Entry<K, Entry<V>> entry = iterator.next();
+            if(predicate.test(entry.getKey())){
+                iterator.remove();
+                removed(entry.getValue());
+            }
+        }
+    }
+
+
+    /**
+     * Removes every value from the cache
+     */
+    public synchronized void invalidateAll(){
+        invalidateIf(key -> true);
+    }
+
+
+    /**
+     * Sets the maximum total weight of the cache, evicting entries if the new budget is smaller
+     * @param maxWeight , the new budget, {@code 0} disables caching
+     */
+    public synchronized void setMaxWeight(long maxWeight){
+        this.maxWeight = Math.max(0, maxWeight);
+        evict();
+    }
+
+    /**
+     * Returns the maximum total weight of the cache
+     * @return {@code long} the budget
+     */
+    public synchronized long getMaxWeight(){
+        return maxWeight;
+    }
+
+    /**
+     * Returns the total weight of the cached values
+     * @return {@code long} the weight
+     */
+    public synchronized long getWeight(){
+        return weight;
+    }
+
+    /**
+     * Returns the number of cached values
+     * @return {@code int} the size
+     */
+    public synchronized int size(){
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of lookups that found a value
+     * @return {@code long} the hits
+     */
+    public synchronized long getHits(){
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that did not find a value
+     * @return {@code long} the misses
+     */
+    public synchronized long getMisses(){
+        return misses;
+    }
+
+    /**
+     * Returns the number of values evicted to stay within the budget
+     * @return {@code long} the evictions
+     */
+    public synchronized long getEvictions(){
+        return evictions;
+    }
+
+    /**
+     * Returns the fraction of lookups that found a value
+     * @return {@code double} between 0 and 1, {@code 0} if there have been no lookups
+     */
+    public synchronized double getHitRate(){
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Resets the hit, miss and eviction counters
+     */
+    public synchronized void resetStats(){
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+
+    @Override
+    public synchronized String toString(){
+        return "LruCache[size=" + entries.size() + ", weight=" + weight + "/" + maxWeight + ", hits=" + hits
+            + ", misses=" + misses + ", evictions=" + evictions + "]";
+    }
+
+
+    /**
+     * Evicts the least recently used entries until the total weight is within the budget
+     */
+    private void evict(){
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while(weight > maxWeight && iterator.hasNext()){
+            Entry<V> eldest = iterator.next();
+            iterator.remove();
+            evictions++;
+            removed(eldest);
+        }
+    }
+
+
+    /**
+     * Updates the weight for an entry that left the cache and notifies the removal callback
+     * @param entry , the entry that was removed, can be {@code null}
+     */
+    private void removed(Entry<V> entry){
+        if(entry == null)
+            return;
+        weight -= entry.weight;
+        if(onRemoval != null)
+            onRemoval.accept(entry.value);
+    }
+
+
+    /**
+     * A cached value along with the weight it was added with
+     */
+    private static final class Entry<V> {
+
+        final V value;
+        final long weight;
+
+        Entry(V value, long weight){
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
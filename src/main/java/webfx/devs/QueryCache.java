@@ -0,0 +1,265 @@
+package webfx.devs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * A bounded cache of query results, keyed by table, SQL and parameters.
+ * <p>Results are dropped whenever their table is written through the {@link Database}. Only the table a query was
+ * issued for is tracked, so a query whose WHERE clause reads other tables can return stale rows after those change.</p>
+ * <p>Rows are copied in and out of the cache, so callers may modify the records they get.</p>
+ * <p>The cache is disabled until it is given a budget through {@link Database#setQueryCacheBudget(long)}.</p>
+ */
+public final class QueryCache {
+
+    private final LruCache<Key, List<Data>> results;
+    //Bumped on every invalidation, so a query that started before a write does not cache its outdated rows
+    private final AtomicLong version = new AtomicLong();
+
+
+    /**
+     * Creates a query cache
+     * @param maxWeight , the approximate memory budget in bytes, {@code 0} to disable caching
+     */
+    QueryCache(long maxWeight){
+        this.results = new LruCache<>(Math.max(0, maxWeight), QueryCache::weigh);
+    }
+
+
+    /**
+     * Returns whether the cache has a budget and stores results
+     * @return {@code true} if it is enabled, {@code false} otherwise
+     */
+    boolean isEnabled(){
+        return results.getMaxWeight() > 0;
+    }
+
+
+    /**
+     * Returns the version to pass to {@link #put(String, String, Object[], List, long) put()}, read before running the query
+     * @return {@code long} the current version
+     */
+    long version(){
+        return version.get();
+    }
+
+
+    /**
+     * Returns a copy of the cached rows of a query
+     * @param table , the table the query reads
+     * @param sql , the SQL of the query
+     * @param params , the parameters bound to the query
+     * @return {@code List<Data>} of the rows, or {@code null} if the query is not cached
+     */
+    List<Data> get(String table, String sql, Object[] params){
+        if(!isEnabled())
+            return null;
+        List<Data> rows = results.get(new Key(table, sql, params));
+        return rows == null ? null : copy(rows);
+    }
+
+
+    /**
+     * Caches a copy of the rows of a query, unless its table was written since the query started
+     * @param table , the table the query reads
+     * @param sql , the SQL of the query
+     * @param params , the parameters bound to the query
+     * @param rows , the rows returned by the query
+     * @param startVersion , the {@link #version()} read before the query ran
+     */
+    void put(String table, String sql, Object[] params, List<Data> rows, long startVersion){
+        if(!isEnabled() || rows == null)
+            return;
+        synchronized(results){
+            if(version.get() == startVersion)
+                results.put(new Key(table, sql, params), copy(rows));
+        }
+    }
+
+
+    /**
+     * Drops every cached result of a table
+     * @param table , the table that was written
+     */
+    void invalidate(String table){
+        String name = normalize(table);
+        synchronized(results){
+            version.incrementAndGet();
+            results.invalidateIf(key -> key.table.equals(name));
+        }
+    }
+
+
+    /**
+     * Drops every cached result
+     */
+    void invalidateAll(){
+        synchronized(results){
+            version.incrementAndGet();
+            results.invalidateAll();
+        }
+    }
+
+
+    /**
+     * Sets the approximate memory budget, evicting the least recently used results if needed
+     * @param maxWeight , the budget in bytes, {@code 0} to disable caching
+     */
+    void setMaxWeight(long maxWeight){
+        results.setMaxWeight(Math.max(0, maxWeight));
+    }
+
+
+    /**
+     * Returns the approximate memory budget in bytes
+     * @return {@code long} the budget
+     */
+    public long getMaxWeight(){
+        return results.getMaxWeight();
+    }
+
+    /**
+     * Returns the approximate memory held by the cached results in bytes
+     * @return {@code long} the weight
+     */
+    public long getWeight(){
+        return results.getWeight();
+    }
+
+    /**
+     * Returns the number of cached queries
+     * @return {@code int} the size
+     */
+    public int size(){
+        return results.size();
+    }
+
+    /**
+     * Returns the number of queries answered from the cache
+     * @return {@code long} the hits
+     */
+    public long getHits(){
+        return results.getHits();
+    }
+
+    /**
+     * Returns the number of queries that had to run against the database
+     * @return {@code long} the misses
+     */
+    public long getMisses(){
+        return results.getMisses();
+    }
+
+    /**
+     * Returns the fraction of queries answered from the cache
+     * @return {@code double} between 0 and 1
+     */
+    public double getHitRate(){
+        return results.getHitRate();
+    }
+
+    /**
+     * Resets the hit and miss counts
+     */
+    public void resetStats(){
+        results.resetStats();
+    }
+
+
+    @Override
+    public String toString(){
+        return "QueryCache[size=" + size() + ", weight=" + getWeight() + "/" + getMaxWeight() + ", hitRate="
+            + String.format(Locale.ROOT, "%.2f", getHitRate()) + "]";
+    }
+
+
+    /**
+     * Copies each row, so cached rows are never shared with callers
+     * @param rows , the rows to copy
+     * @return {@code List<Data>} of the copies
+     */
+    private static List<Data> copy(List<Data> rows){
+        List<Data> copies = new ArrayList<>(rows.size());
+        for(Data row : rows)
+            copies.add(row instanceof RowData ? ((RowData) row).copy() : new Data(row));
+        return copies;
+    }
+
+
+    /**
+     * Approximates the memory held by cached rows in bytes
+     * @param rows , the rows
+     * @return {@code long} the approximate size
+     */
+    private static long weigh(List<Data> rows){
+        long weight = 64;
+        for(Data row : rows){
+            long compact = row instanceof RowData ? ((RowData) row).weight() : -1;
+            if(compact >= 0){
+                weight += compact;
+                continue;
+            }
+            weight += 64;
+            for(Map.Entry<String, Object> column : row.entrySet()){
+                weight += 48 + column.getKey().length() * 2L;
+                Object value = column.getValue();
+                if(value instanceof String)
+                    weight += 40 + ((String) value).length() * 2L;
+                else if(value instanceof byte[])
+                    weight += 16 + ((byte[]) value).length;
+                else if(value != null)
+                    weight += 24;
+            }
+        }
+        return weight;
+    }
+
+
+    /**
+     * Lower-cases a table name, since SQLite table names are case-insensitive
+     * @param table , the name of the table
+     * @return {@code String} of the normalized name
+     */
+    private static String normalize(String table){
+        return table == null ? "" : table.trim().toLowerCase(Locale.ROOT);
+    }
+
+
+    /**
+     * The identity of a query: its table, SQL and parameters
+     */
+    private static final class Key {
+
+        final String table;
+        final String sql;
+        final Object[] params;
+        final int hash;
+
+        Key(String table, String sql, Object[] params){
+            this.table = normalize(table);
+            this.sql = sql;
+            this.params = params == null ? new Object[0] : params.clone();
+            this.hash = 31 * (31 * this.table.hashCode() + sql.hashCode()) + Arrays.deepHashCode(this.params);
+        }
+
+        @Override
+        public boolean equals(Object other){
+            if(this == other)
+                return true;
+            if(!(other instanceof Key))
+                return false;
+            Key key = (Key) other;
+            return hash == key.hash && table.equals(key.table) && sql.equals(key.sql) && Arrays.deepEquals(params, key.params);
+        }
+
+        @Override
+        public int hashCode(){
+            return hash;
+        }
+    }
+}
@@ -33,6 +33,9 @@ public class ResourceManager {
     private static String directoryName = "webfx-external";
     private static String filename = "current.html";
 
+    //Contents of templates, stylesheets and other resources, weighed by their size in bytes
+    private static final LruCache<String, String> resources = new LruCache<>(16L * 1024 * 1024, content -> content.length() * 2L);
+
     /**
      * Retrieves an image from a given filename.
      * @param filename , the name of the image file
@@ -158,73 +161,59 @@ public class ResourceManager {
     /**
      * Reads the contents within a template
      * <p> Template must be in {@code resources/template/}</p>
+     * <p>Contents are served from the resource cache after the first read</p>
      * @param filename , The name of the template
      * @return {@code String} of the file's contents
      */
     public static String readFromTemplate(String filename){
-        InputStream in = null;
-        if(filename.endsWith(".html")){
-            in = clazz.getResourceAsStream("/templates/" + filename);
-        }
-        else{
-            in = clazz.getResourceAsStream("/templates/" + filename + ".html");
-        }
-        if(in == null){
-            System.out.println("The file: " + filename + " could not be found");
-            return null;
-        }
-        try{
-            String content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
-            return content;
-        } catch (Exception e){
-            e.printStackTrace();
-            return null;
-        }
+        if(filename.endsWith(".html"))
+            return readCached("/templates/" + filename, filename);
+        return readCached("/templates/" + filename + ".html", filename);
     }
 
     /**
      * Reads the contents within a stylesheet
      * <p> Stylesheet must be in {@code resources/style/}</p>
+     * <p>Contents are served from the resource cache after the first read</p>
      * @param filename , The name of the stylesheet
      * @return {@code String} of the file's contents
      */
     public static String readFromStylesheet(String filename){
-        InputStream in = null;
-        if(filename.endsWith(".css")){
-            in = clazz.getResourceAsStream("/styles/" + filename);
-        }
-        else{
-            in = clazz.getResourceAsStream("/styles/" + filename + ".css");
-        }
-        if(in == null){
-            System.out.println("The file: " + filename + " could not be found");
-            return null;
-        }
-        try{
-            String content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
-            return content;
-        } catch (Exception e){
-            e.printStackTrace();
-            return null;
-        }
+        if(filename.endsWith(".css"))
+            return readCached("/styles/" + filename, filename);
+        return readCached("/styles/" + filename + ".css", filename);
     }
 
     /**
      * Reads the contents within a file in the resources directory
      * <p>If it's not in the root of resources, must specify the path in resources e.g. {@code /styles/style.css}
      * <p>Extension must be included in filename e.g. .html, .css</p>
+     * <p>Contents are served from the resource cache after the first read</p>
      * @param filename , The name of the file
      * @return {@code String} of the file's contents
      */
     public static String readResource(String filename){
-        InputStream in = null;
-        in = clazz.getResourceAsStream(filename);
-        if(in == null){
-            System.out.println("The file: " + filename + " could not be found");
-            return null;
-        }
-        try{
-            String content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        return readCached(filename, filename);
+    }
+
+
+    /**
+     * Returns the contents of a resource from the cache, reading and caching it on a miss
+     * @param path , The path of the resource
+     * @param filename , The name reported if the resource could not be found
+     * @return {@code String} of the resource's contents, {@code null} if it could not be read
+     */
+    private static String readCached(String path, String filename){
+        String content = resources.get(path);
+        if(content != null)
+            return content;
+        try(InputStream in = clazz.getResourceAsStream(path)){
+            if(in == null){
+                System.out.println("The file: " + filename + " could not be found");
+                return null;
+            }
+            content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            resources.put(path, content);
             return content;
         } catch (Exception e){
             e.printStackTrace();
@@ -232,6 +221,38 @@ public class ResourceManager {
         }
     }
 
+
+    /**
+     * Removes a resource from the cache, so the next read comes from the classpath
+     * @param path , The path of the resource, e.g. {@code /templates/home.html} or {@code /styles/style.css}
+     */
+    public static void invalidateResource(String path){
+        resources.invalidate(path);
+    }
+
+    /**
+     * Removes every resource from the cache, e.g. after changing {@code ResourceManager.clazz}
+     */
+    public static void invalidateResources(){
+        resources.invalidateAll();
+    }
+
+    /**
+     * Sets the memory budget of the resource cache, the least recently used resources are dropped when it is exceeded
+     * @param bytes , the budget in bytes, {@code 0} disables the cache
+     */
+    public static void setResourceCacheBudget(long bytes){
+        resources.setMaxWeight(bytes);
+    }
+
+    /**
+     * Returns the resource cache, e.g. to read its hit rate
+     * @return The {@code LruCache} of resource contents by path
+     */
+    public static LruCache<String, String> getResourceCache(){
+        return resources;
+    }
+
     
     /**
      * Writes to a specified path given a string and returns the success status as a boolean variable
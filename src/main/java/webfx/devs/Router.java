@@ -1,18 +1,26 @@
 package webfx.devs;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.reflections.Reflections;
 import org.reflections.scanners.MethodAnnotationsScanner;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import javafx.application.Platform;
 import javafx.scene.web.WebView;
-import netscape.javascript.JSObject;
 
 
 /**
@@ -20,28 +28,98 @@ import netscape.javascript.JSObject;
  */
 public class Router {
     
+    //Serializes every field of a form into a JSON string, so a submission crosses into the page only once
+    private static final String FORM_SCRIPT = "(function(form){"
+        + "if(!form) return null;"
+        + "var out = {}, groups = {}, fields = form.querySelectorAll('input, select, textarea'), i, j;"
+        + "for(i = 0; i < fields.length; i++){"
+        + "if(fields[i].type === 'checkbox' && fields[i].name) groups[fields[i].name] = (groups[fields[i].name] || 0) + 1;"
+        + "}"
+        + "for(i = 0; i < fields.length; i++){"
+        + "var f = fields[i], key = f.id || f.name;"
+        + "if(f.type === 'radio'){"
+        + "key = f.name || f.id; if(!key) continue;"
+        + "if(!(key in out)) out[key] = null;"
+        + "if(f.checked) out[key] = f.value;"
+        + "}"
+        + "else if(f.type === 'checkbox' && f.name && groups[f.name] > 1){"
+        + "if(!(f.name in out)) out[f.name] = [];"
+        + "if(f.checked) out[f.name].push(f.value);"
+        + "}"
+        + "else if(!key) continue;"
+        + "else if(f.type === 'checkbox') out[key] = f.checked;"
+        + "else if(f.tagName === 'SELECT' && f.multiple){"
+        + "out[key] = [];"
+        + "for(j = 0; j < f.options.length; j++) if(f.options[j].selected) out[key].push(f.options[j].value);"
+        + "}"
+        + "else out[key] = f.value === '' ? null : f.value;"
+        + "}"
+        + "return JSON.stringify(out);"
+        + "})";
+
+    //Keeps the promises of asynchronous endpoints on the page, settling them in batches
+    private static final String ASYNC_SCRIPT = "(window.__webfx || (window.__webfx = {"
+        + "pending: {},"
+        + "create: function(id){"
+        + "var pending = this.pending;"
+        + "return new Promise(function(resolve, reject){ pending[id] = [resolve, reject]; });"
+        + "},"
+        + "settle: function(batch){"
+        + "for(var i = 0; i < batch.length; i++){"
+        + "var entry = batch[i], callbacks = this.pending[entry[0]];"
+        + "if(!callbacks) continue;"
+        + "delete this.pending[entry[0]];"
+        + "if(entry[1]) callbacks[0](entry[2]); else callbacks[1](new Error(entry[2]));"
+        + "}"
+        + "}"
+        + "}))";
+
+    private static ExecutorService asyncExecutor = null;
+    private static final long DEFAULT_SNAPSHOT_BUDGET = 8L * 1024 * 1024;
+
     private Stack<HistoryData<String, String>> history;
+    private final LruCache<HistoryData<String, String>, String> snapshots = new LruCache<>(DEFAULT_SNAPSHOT_BUDGET, page -> page.length() * 2L);
     private java.net.URI currURI = null;
     private boolean backwards = false;
+    private boolean inMemory = false;
     private String packageName;
     HashMap<String, Method> methods;
-    private WebView webView = null;
+    HashMap<String, EndpointInvoker> invokers;
+    private final View view;
+    private final AtomicInteger nextPromise = new AtomicInteger();
+    private final ConcurrentLinkedQueue<String> settled = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean settleScheduled = new AtomicBoolean(false);
+    private long endpointLoadNanos = 0;
+    private boolean endpointIndexed = false;
 
     /**
      * This constructor of the Router class which can be used to navigate between different pages.
      * It accepts the string of the first page to be rendered, and the current webView
      * Throws an IllegalArgumentException if the filename is not in the templates folder
+     * <p>Endpoints are loaded from the index generated by the {@link EndpointProcessor} when one exists,
+     * falling back to a classpath scan of the application's package otherwise.</p>
      * @param filename , The name of the file
      * @param webView , WebView object
      */
     public Router(String filename, WebView webView) throws IllegalArgumentException {
+        this(filename, View.of(webView), ResourceManager.evaluateClazz().getPackageName(), ResourceManager.getRenderedPageUri());
+    }
+
+
+    /**
+     * Creates a Router that displays its pages through the given view
+     * @param filename , The name of the file
+     * @param view , the view the pages and scripts are handed to
+     * @param packageName , the package the endpoints are loaded from
+     * @param renderedPage , the file pages are written to when they are not rendered from memory
+     */
+    Router(String filename, View view, String packageName, java.net.URI renderedPage) throws IllegalArgumentException {
         this.history = new Stack<>();
         history.push(new HistoryData<>(filename, ""));
-        this.packageName = ResourceManager.evaluateClazz().getPackageName();
-        this.webView = webView;
-        currURI = ResourceManager.getRenderedPageUri();
-        Reflections reflection = new Reflections(packageName, new MethodAnnotationsScanner());
-        this.methods = mapMethods(reflection.getMethodsAnnotatedWith(Endpoint.class));
+        this.packageName = packageName;
+        this.view = view;
+        currURI = renderedPage;
+        loadEndpoints();
         if(ResourceManager.getTemplate(filename) == null)
             throw new IllegalArgumentException("Please pass a valid /template file");
         else
@@ -49,6 +127,44 @@ public class Router {
     }
     
 
+    /**
+     * Maps all endpoints, preferring the compile-time index over a runtime scan, and reports the time taken
+     */
+    private void loadEndpoints(){
+        long start = System.nanoTime();
+        ClassLoader loader = ResourceManager.clazz != null ? ResourceManager.clazz.getClassLoader() : Thread.currentThread().getContextClassLoader();
+        Set<Method> endpoints = EndpointIndex.load(loader, packageName);
+        endpointIndexed = endpoints != null;
+        if(!endpointIndexed){
+            Reflections reflection = new Reflections(packageName, new MethodAnnotationsScanner());
+            endpoints = reflection.getMethodsAnnotatedWith(Endpoint.class);
+        }
+        this.methods = mapMethods(endpoints);
+        this.invokers = bindMethods(methods);
+        endpointLoadNanos = System.nanoTime() - start;
+        System.out.println("Mapped " + methods.size() + " endpoints from the " + (endpointIndexed ? "generated index" : "classpath scan")
+            + " in " + (endpointLoadNanos / 1_000_000.0) + " ms");
+    }
+
+
+    /**
+     * Returns the time it took to find and map the endpoints when this router was created
+     * @return {@code long} the time in nanoseconds
+     */
+    public long getEndpointLoadNanos(){
+        return endpointLoadNanos;
+    }
+
+
+    /**
+     * Returns whether the endpoints were loaded from the index generated by the {@link EndpointProcessor}
+     * @return {@code true} if the generated index was used, {@code false} if the classpath was scanned
+     */
+    public boolean isEndpointIndexed(){
+        return endpointIndexed;
+    }
+
+
     /**
      * Accepts the name of a template and renders the page
      * @param filename , the name of the template
@@ -56,19 +172,17 @@ public class Router {
     public void render(String filename){
         try{
             String template = ResourceManager.readFromTemplate(filename);
-            if (currURI == null || template == null)
+            if (template == null)
                 return;
-            Path newTemplate = Paths.get(currURI);
-            if(!ResourceManager.writeToFile(newTemplate, template)){
+            String page = TemplateEngine.isRunning() ? TemplateEngine.clearPlaceholders(template) : template;
+            if(!display(page))
                 return;
-            }
-            TemplateEngine.clearPlaceholders(newTemplate, template);
-            webView.getEngine().load(newTemplate.toUri().toString());
 
             if(!backwards)
                 history.push(new HistoryData<>(filename, ""));
             else
                 backwards = false;
+            snapshots.put(history.peek(), page);
         } catch (Exception e){
             e.printStackTrace();
         }
@@ -83,87 +197,193 @@ public class Router {
     public void renderWithData(String filename, String data){
         try{
             String template = ResourceManager.readFromTemplate(filename);
-            if (currURI == null || template == null)
+            if (template == null)
                 return;
-            Path newTemplate = Paths.get(currURI);
-            if(!ResourceManager.writeToFile(newTemplate, template)){
+            String page = TemplateEngine.injectData(template, data);
+            if(!display(page))
                 return;
-            }
-            TemplateEngine.injectData(newTemplate, template, data);
-            webView.getEngine().load(newTemplate.toUri().toString());
             if(!backwards)
                 history.push(new HistoryData<>(filename, data));
             else
                 backwards=false;
+            snapshots.put(history.peek(), page);
         } catch (Exception e){
             e.printStackTrace();
         }
     }
 
 
+    /**
+     * Accepts the name of a template and the data to be injected as a {@link Data} object, and renders the page
+     * <p>The data is serialized with {@link DataSerializer}, so pages can be rendered from the results of the
+     * {@link Database} or of {@link DataManager} without building JSON by hand</p>
+     * @param filename , the name of the template
+     * @param data , the data to inject into the template, {@code null} to render the template without data
+     */
+    public void renderWithData(String filename, Data data){
+        if(data == null)
+            render(filename);
+        else
+            renderWithData(filename, DataSerializer.toJson(data));
+    }
+
+
+    /**
+     * Hands the final html of a page to the WebView.
+     * <p>In memory rendering passes the html straight to the engine, with a {@code <base>} pointing at the rendered page's
+     * location so relative links resolve exactly as they would from the file. Otherwise the html is written to the file
+     * behind {@link ResourceManager#getRenderedPageUri()} and loaded from there.</p>
+     * @param page , the html to display
+     * @return {@code true} if the page was handed to the engine, {@code false} otherwise
+     */
+    private boolean display(String page){
+        if(inMemory){
+            String base = currURI == null ? null : currURI.toString();
+            view.loadContent(TemplateEngine.addBase(page, base));
+            return true;
+        }
+        if(currURI == null)
+            return false;
+        Path output = Paths.get(currURI);
+        if(!ResourceManager.writeToFile(output, page))
+            return false;
+        view.load(output.toUri().toString());
+        return true;
+    }
+
+
+    /**
+     * Sets whether pages are rendered from memory instead of being written to the rendered page file on every navigation.
+     * <p>Pages rendered from memory are never written to disk, so {@link TemplateEngine#addStylesheet(String)} has no effect on them.
+     * Link stylesheets from the templates instead.</p>
+     * @param inMemory , {@code true} to render from memory, {@code false} to write to the rendered page file
+     */
+    public void setInMemoryRendering(boolean inMemory){
+        this.inMemory = inMemory;
+    }
+
+
+    /**
+     * Returns whether pages are rendered from memory
+     * @return {@code true} if pages are rendered from memory, {@code false} if they are written to the rendered page file
+     */
+    public boolean isInMemoryRendering(){
+        return inMemory;
+    }
+
+
     /**
      * Go back to the last page in the Router's history, maintaining the data that was rendered to that page
-     * 
+     * <p>Pages still held in the snapshot cache are displayed as they were rendered, without reading or
+     * filling in their template again.</p>
      */
     public void goBack(){
         if (history.size() <= 1)
             return;
+        snapshots.invalidate(history.pop());
+        HistoryData<String, String> previous = history.peek();
+        String snapshot = snapshots.get(previous);
+        if(snapshot != null && display(snapshot))
+            return;
         backwards = true;
-        history.pop();
-        String data = history.peek().data;
-        if(data.equals(""))
-            render(history.peek().filename);
+        if(previous.data.equals(""))
+            render(previous.filename);
         else
-            renderWithData(history.peek().filename, data);
+            renderWithData(previous.filename, previous.data);
+    }
+
+
+    /**
+     * Sets the memory budget of the snapshot cache, which keeps the rendered html of pages in the history for {@link #goBack()}
+     * <p>The least recently used snapshots are dropped when the budget is exceeded</p>
+     * @param bytes , the budget in bytes, {@code 0} disables the cache
+     */
+    public void setSnapshotCacheBudget(long bytes){
+        snapshots.setMaxWeight(bytes);
+    }
+
+
+    /**
+     * Returns the snapshot cache, e.g. to read its hit and miss counts
+     * @return The {@code LruCache} of rendered pages by history entry
+     */
+    public LruCache<HistoryData<String, String>, String> getSnapshotCache(){
+        return snapshots;
     }
 
 
     /**
      * This is serves to be the method that javascript can call for form submission. 
-     * <p>It reads through the input fields of the specified form id and carries the data to the specified endpoint. </p>
+     * <p>It reads through the fields of the specified form id and carries the data to the specified endpoint. </p>
+     * <p>The whole form is read in a single call into the page. Fields are keyed by their id, or their name if they have no id:</p>
+     * <ul>
+     * <li>{@code input}, {@code textarea} and single {@code select} values are stored as {@code String}</li>
+     * <li>A checkbox is stored as a {@code Boolean} of whether it is checked. Checkboxes sharing a name are stored
+     * under that name as an {@code ArrayList} of the checked values</li>
+     * <li>Radio buttons are stored under their name as the value of the checked button</li>
+     * <li>A {@code select} with {@code multiple} is stored as an {@code ArrayList} of the selected values</li>
+     * </ul>
      * <p>Endpoints expecting data, must be have a single parameter of type {@code Data} </p>
      * <p>Empty form values will be interpreted as null </p>
      * @param id , indication the form id
      * @param endpoint , indicating the annotated endpoint name i.e "@Endpoint(name="")"
+     * @return A javascript {@code Promise} if the endpoint is asynchronous, {@code null} otherwise
      */
-    public void submission(String id, String endpoint){
+    public Object submission(String id, String endpoint){
         try{
-            if(methods.containsKey(endpoint)){
-                JSObject inputs = (JSObject) webView.getEngine().executeScript("document.querySelectorAll('#" + id + " input')");
-                int length = (Integer) inputs.getMember("length");
-                Data data = new Data();
-                for(int i=0; i < length; i++){
-                    JSObject input = (JSObject) inputs.getSlot(i);
-                    Object value = input.getMember("value");
-                    String property = (String) input.getMember("id");
-                    if(value.equals(""))
-                        value = null;
-                    data.put(property, value);
-                }
-                try{
-                    methods.get(endpoint).invoke(null, data);
-                    return;
-                } catch (IllegalArgumentException | NullPointerException e){
-                    if(e instanceof IllegalArgumentException)
-                        System.out.println("Error routing to endpoint: " + endpoint + ", Please ensure that it either has no parameters or it's only parameter is of type: Data");
-                    if(e instanceof NullPointerException)
-                        System.out.println("Error routing to endpoint: " + endpoint + ", Please ensure that the method that " + endpoint + " annotates is static");
-                    return;
-                }
-            }
-            else{
+            EndpointInvoker invoker = invokers.get(endpoint);
+            if(invoker == null){
                 System.out.println(endpoint + " does not exist or is not annotated properly");
+                return null;
+            }
+            if(!invoker.acceptsData()){
+                System.out.println("Error routing to endpoint: " + endpoint + ", Please ensure that it's only parameter is of type: Data");
+                return null;
+            }
+            Object form = view.executeScript(FORM_SCRIPT + "(document.getElementById(" + new JsonPrimitive(id) + "))");
+            if(!(form instanceof String)){
+                System.out.println("The form: " + id + " could not be found");
+                return null;
             }
+            return dispatch(invoker, formToData((String) form));
         } catch (Exception e){
-            if (!(e instanceof InvocationTargetException))
-                e.printStackTrace();
-            return;
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+
+    /**
+     * Builds a {@link Data} object from the JSON produced by {@link #FORM_SCRIPT}, in a single pass over its fields
+     * @param form , the serialized form
+     * @return The {@code Data} of the form's fields
+     */
+    static Data formToData(String form){
+        JsonObject json = JsonParser.parseString(form).getAsJsonObject();
+        Data data = new Data();
+        for(Map.Entry<String, JsonElement> field : json.entrySet()){
+            JsonElement value = field.getValue();
+            if(value.isJsonArray()){
+                ArrayList<Object> values = new ArrayList<>(value.getAsJsonArray().size());
+                for(JsonElement element : value.getAsJsonArray())
+                    values.add(element.getAsString());
+                data.put(field.getKey(), values);
+            }
+            else if(value.isJsonNull())
+                data.put(field.getKey(), null);
+            else if(value.getAsJsonPrimitive().isBoolean())
+                data.put(field.getKey(), value.getAsBoolean());
+            else
+                data.put(field.getKey(), value.getAsString());
         }
+        return data;
     }
 
 
     /**
      * Returns a mapping of all endpoints with a given set of methods
+     * <p>Each method's signature is checked once here. Methods that are not static, or that have parameters other than
+     * a single {@link Data}, are reported and left out of the mapping.</p>
      * @param methods , A {@code Set} of methods with {@code @Endpoint} Annotations
      * @return {@code HashMap<String, Method>} , of all endpoint names and methods
      */
@@ -171,8 +391,13 @@ public class Router {
         HashMap<String, Method> map = new HashMap<>();
         try{
             for(Method method : methods){
-                method.setAccessible(true);
                 String name = method.getAnnotation(Endpoint.class).name();
+                String error = EndpointInvoker.validate(method);
+                if(error != null){
+                    System.out.println("Error mapping endpoint: " + name + ", " + error);
+                    continue;
+                }
+                method.setAccessible(true);
                 if(!map.containsKey(name))
                     map.put(name, method);
             }
@@ -183,39 +408,188 @@ public class Router {
         }
     }
 
+
+    /**
+     * Binds each mapped endpoint into a direct {@link EndpointInvoker}, so calls from javascript avoid reflection
+     * @param methods , the mapping returned by {@link #mapMethods(Set) mapMethods()}
+     * @return {@code HashMap<String, EndpointInvoker>} , of all endpoint names and invokers
+     */
+    public HashMap<String, EndpointInvoker> bindMethods(HashMap<String, Method> methods){
+        HashMap<String, EndpointInvoker> map = new HashMap<>();
+        for(Map.Entry<String, Method> entry : methods.entrySet()){
+            try{
+                map.put(entry.getKey(), EndpointInvoker.bind(entry.getValue()));
+            } catch (IllegalArgumentException e){
+                System.out.println("Error mapping endpoint: " + entry.getKey() + ", " + e.getMessage());
+            }
+        }
+        return map;
+    }
+
     
     /**
      * Routes to a specific endpoint given the endpoint's name. Data as a {@code String} can also be passed, insert {@code null} if no data is being passed
      * @param endpoint , indicating the annotated endpoint name i.e "@Endpoint(name="")"
      * @param jsonString , data being passed, insert {@code null} if no data is meant to be passed
+     * @return A javascript {@code Promise} if the endpoint is asynchronous, {@code null} otherwise
      */
-    public void route(String endpoint, String jsonString){
+    public Object route(String endpoint, String jsonString){
         try{
-            if(!methods.containsKey(endpoint)){
+            EndpointInvoker invoker = invokers.get(endpoint);
+            if(invoker == null){
                 System.out.println(endpoint + " does not exist or is not annotated properly");
+                return null;
             }
-            Method method = methods.get(endpoint);
             if(jsonString == null){
-                method.invoke(null);
-                return;
+                if(invoker.acceptsData()){
+                    System.out.println("Error routing to endpoint: " + endpoint + ", it expects data of type: Data but none was passed");
+                    return null;
+                }
+                return dispatch(invoker, null);
             }
             else{
-                JsonObject json = JsonParser.parseString(jsonString).getAsJsonObject();
-                Data data = DataManager.jsonToData(json);
-                try{
-                    method.invoke(null, data);
-                    return;
-                } catch (IllegalArgumentException | NullPointerException e){
-                    if(e instanceof IllegalArgumentException)
-                        System.out.println("Error routing to endpoint: " + endpoint + ", Please ensure that it either has no parameters or it's only parameter is of type: Data");
-                    if(e instanceof NullPointerException)
-                        System.out.println("Error routing to endpoint: " + endpoint + ", Please ensure that the method that " + endpoint + " annotates is static");
-                    return;
+                if(!invoker.acceptsData()){
+                    System.out.println("Error routing to endpoint: " + endpoint + ", Please ensure that it either has no parameters or it's only parameter is of type: Data");
+                    return null;
+                }
+                Data data = DataManager.jsonToData(jsonString);
+                if(data == null){
+                    System.out.println("Error routing to endpoint: " + endpoint + ", the data passed is not a valid JSON object");
+                    return null;
                 }
+                return dispatch(invoker, data);
             }
         } catch (Exception e){
             System.out.println("Error during routing");
             e.printStackTrace();
+            return null;
+        }
+    }
+
+
+    /**
+     * Calls an endpoint. Synchronous endpoints run immediately on the calling thread, asynchronous endpoints are
+     * handed to a virtual thread and a {@code Promise} is returned to the page
+     * @param invoker , the endpoint's invoker
+     * @param data , the data to pass to the endpoint
+     * @return A javascript {@code Promise} if the endpoint is asynchronous, {@code null} otherwise
+     * @throws Exception any exception thrown by a synchronous endpoint
+     */
+    private Object dispatch(EndpointInvoker invoker, Data data) throws Exception {
+        if(!invoker.isAsync()){
+            invoker.invoke(data);
+            return null;
+        }
+        int id = nextPromise.incrementAndGet();
+        Object promise = view.executeScript(ASYNC_SCRIPT + ".create(" + id + ")");
+        getAsyncExecutor().execute(() -> {
+            StringBuilder result = new StringBuilder(64).append('[').append(id);
+            try{
+                Object value = invoker.invoke(data);
+                int start = result.length();
+                try{
+                    DataSerializer.write(value, result.append(",true,"));
+                } catch (RuntimeException e){
+                    result.setLength(start);
+                    throw e;
+                }
+            } catch (Exception e){
+                e.printStackTrace();
+                result.append(",false,").append(DataSerializer.toJson(String.valueOf(e.getMessage())));
+            }
+            settled.add(result.append(']').toString());
+            if(settleScheduled.compareAndSet(false, true))
+                view.runLater(this::settlePromises);
+        });
+        return promise;
+    }
+
+
+    /**
+     * Settles every completed asynchronous call with a single script, on the JavaFX application thread
+     */
+    private void settlePromises(){
+        settleScheduled.set(false);
+        StringBuilder batch = new StringBuilder("[");
+        String result;
+        while((result = settled.poll()) != null){
+            if(batch.length() > 1)
+                batch.append(',');
+            batch.append(result);
+        }
+        if(batch.length() == 1)
+            return;
+        batch.append(']');
+        try{
+            view.executeScript("if(window.__webfx) window.__webfx.settle(" + batch + ")");
+        } catch (Exception e){
+            e.printStackTrace();
+        }
+    }
+
+
+    /**
+     * Returns the number of asynchronous calls that completed but have not been settled on the page yet
+     * @return {@code int} the number of unsettled results
+     */
+    int unsettledPromises(){
+        return settled.size();
+    }
+
+
+    /**
+     * Returns the executor that runs asynchronous endpoints, creating it on first use
+     * @return The {@code ExecutorService} with a virtual thread per task
+     */
+    private static synchronized ExecutorService getAsyncExecutor(){
+        if(asyncExecutor == null)
+            asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        return asyncExecutor;
+    }
+
+
+    /**
+     * The part of the {@code WebView} the Router relies on, so navigation and endpoint calls can run without a display
+     */
+    interface View {
+
+        /**
+         * Loads the page at the given url
+         * @param url , the url of the page
+         */
+        void load(String url);
+
+        /**
+         * Loads a page from its html
+         * @param html , the html of the page
+         */
+        void loadContent(String html);
+
+        /**
+         * Runs a script in the current page
+         * @param script , the javascript to run
+         * @return The result of the script
+         */
+        Object executeScript(String script);
+
+        /**
+         * Runs an action on the thread that owns the view
+         * @param action , the action to run
+         */
+        void runLater(Runnable action);
+
+        /**
+         * Wraps the engine of a {@code WebView}, running actions on the JavaFX application thread
+         * @param webView , WebView object
+         * @return The {@code View} of the WebView
+         */
+        static View of(WebView webView){
+            return new View(){
+                public void load(String url){ webView.getEngine().load(url); }
+                public void loadContent(String html){ webView.getEngine().loadContent(html); }
+                public Object executeScript(String script){ return webView.getEngine().executeScript(script); }
+                public void runLater(Runnable action){ Platform.runLater(action); }
+            };
         }
     }
 
@@ -0,0 +1,616 @@
+package webfx.devs;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+
+/**
+ * A compact {@link Data} holding one row of a result set.
+ * <p>Rows read from the same result set share a single immutable {@link Shape}, the column names and their positions,
+ * so each row only holds its values in a flat {@code Object[]}. Whole numbers and reals are stored unboxed in a
+ * {@code long[]}, and boxed again, to the same type they were read as, when they are read from the map.</p>
+ * <p>The row behaves as any other {@code Data}: values can be replaced and columns removed in place, and its views
+ * write through. Putting a key that is not one of the row's columns moves the row into the ordinary {@code HashMap}
+ * storage it inherits, after which every call goes to {@code HashMap}. Rows are serialized as plain {@code Data}.</p>
+ */
+final class RowData extends Data {
+
+    private static final long serialVersionUID = 1L;
+
+    //Markers stored in place of a value that lives unboxed in the long array, or of a removed column
+    private static final Object INT = new Object();
+    private static final Object LONG = new Object();
+    private static final Object DOUBLE = new Object();
+    private static final Object ABSENT = new Object();
+
+    //The shared columns, null once the row has moved into the HashMap storage
+    private transient Shape shape;
+    private transient Object[] values;
+    private transient long[] numbers;
+    private transient int size;
+
+
+    private RowData(Shape shape, Object[] values, long[] numbers, int size){
+        this.shape = shape;
+        this.values = values;
+        this.numbers = numbers;
+        this.size = size;
+    }
+
+
+    /**
+     * Reads the current row of a result set
+     * @param resultSet , the result set, positioned on a row
+     * @param shape , the shape of the result set's columns
+     * @return The {@code RowData} of the row
+     * @throws SQLException if the row could not be read
+     */
+    static RowData read(ResultSet resultSet, Shape shape) throws SQLException {
+        int width = shape.names.length;
+        Object[] values = new Object[width];
+        long[] numbers = null;
+        for(int column = 0; column < shape.slots.length; column++){
+            int slot = shape.slots[column];
+            Object value = resultSet.getObject(column + 1);
+            Object marker = marker(value);
+            if(marker != null){
+                if(numbers == null)
+                    numbers = new long[width];
+                numbers[slot] = bits(value);
+                value = marker;
+            }
+            values[slot] = value;
+        }
+        return new RowData(shape, values, numbers, width);
+    }
+
+
+    /**
+     * Returns a copy of the row, sharing its shape but not its values
+     * @return {@code Data} of the copy
+     */
+    Data copy(){
+        if(shape == null)
+            return new Data(this);
+        return new RowData(shape, values.clone(), numbers == null ? null : numbers.clone(), size);
+    }
+
+
+    /**
+     * Approximates the memory held by the row in bytes, not counting its shared shape
+     * @return {@code long} the approximate size, {@code -1} once the row uses the {@code HashMap} storage
+     */
+    long weight(){
+        if(shape == null)
+            return -1;
+        long weight = 64 + values.length * 4L + (numbers == null ? 0 : 16 + numbers.length * 8L);
+        for(Object value : values){
+            if(value instanceof String)
+                weight += 40 + ((String) value).length() * 2L;
+            else if(value instanceof byte[])
+                weight += 16 + ((byte[]) value).length;
+            else if(value != null && value != ABSENT && value != INT && value != LONG && value != DOUBLE)
+                weight += 24;
+        }
+        return weight;
+    }
+
+
+    @Override
+    public int size(){
+        return shape == null ? super.size() : size;
+    }
+
+    @Override
+    public boolean isEmpty(){
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key){
+        if(shape == null)
+            return super.containsKey(key);
+        int slot = shape.slot(key);
+        return slot >= 0 && values[slot] != ABSENT;
+    }
+
+    @Override
+    public Object get(Object key){
+        if(shape == null)
+            return super.get(key);
+        int slot = shape.slot(key);
+        return slot < 0 ? null : value(slot);
+    }
+
+    @Override
+    public Object getOrDefault(Object key, Object defaultValue){
+        if(shape == null)
+            return super.getOrDefault(key, defaultValue);
+        int slot = shape.slot(key);
+        return slot < 0 || values[slot] == ABSENT ? defaultValue : value(slot);
+    }
+
+    @Override
+    public boolean containsValue(Object value){
+        if(shape == null)
+            return super.containsValue(value);
+        for(int slot = 0; slot < values.length; slot++){
+            if(values[slot] != ABSENT && Objects.equals(value(slot), value))
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Object put(String key, Object value){
+        if(shape == null)
+            return super.put(key, value);
+        int slot = shape.slot(key);
+        if(slot < 0){
+            inflate();
+            return super.put(key, value);
+        }
+        Object previous = value(slot);
+        if(values[slot] == ABSENT)
+            size++;
+        store(slot, value);
+        return previous;
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ?> map){
+        if(shape == null){
+            super.putAll(map);
+            return;
+        }
+        for(Map.Entry<? extends String, ?> entry : map.entrySet())
+            put(entry.getKey(), entry.getValue());
+    }
+
+    @Override
+    public Object remove(Object key){
+        if(shape == null)
+            return super.remove(key);
+        int slot = shape.slot(key);
+        if(slot < 0 || values[slot] == ABSENT)
+            return null;
+        Object previous = value(slot);
+        values[slot] = ABSENT;
+        size--;
+        return previous;
+    }
+
+    @Override
+    public boolean remove(Object key, Object value){
+        if(shape == null)
+            return super.remove(key, value);
+        if(!containsKey(key) || !Objects.equals(get(key), value))
+            return false;
+        remove(key);
+        return true;
+    }
+
+    @Override
+    public void clear(){
+        if(shape == null){
+            super.clear();
+            return;
+        }
+        Arrays.fill(values, ABSENT);
+        size = 0;
+    }
+
+    @Override
+    public Object putIfAbsent(String key, Object value){
+        if(shape == null)
+            return super.putIfAbsent(key, value);
+        Object current = get(key);
+        return current == null ? put(key, value) : current;
+    }
+
+    @Override
+    public boolean replace(String key, Object oldValue, Object newValue){
+        if(shape == null)
+            return super.replace(key, oldValue, newValue);
+        if(!containsKey(key) || !Objects.equals(get(key), oldValue))
+            return false;
+        put(key, newValue);
+        return true;
+    }
+
+    @Override
+    public Object replace(String key, Object value){
+        if(shape == null)
+            return super.replace(key, value);
+        return containsKey(key) ? put(key, value) : null;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action){
+        if(shape == null){
+            super.forEach(action);
+            return;
+        }
+        for(int slot = 0; slot < values.length; slot++){
+            if(values[slot] != ABSENT)
+                action.accept(shape.names[slot], value(slot));
+        }
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super String, ? super Object, ?> function){
+        if(shape == null){
+            super.replaceAll(function);
+            return;
+        }
+        for(int slot = 0; slot < values.length; slot++){
+            if(values[slot] != ABSENT)
+                store(slot, function.apply(shape.names[slot], value(slot)));
+        }
+    }
+
+    @Override
+    public Object computeIfAbsent(String key, Function<? super String, ?> mappingFunction){
+        inflate();
+        return super.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public Object computeIfPresent(String key, BiFunction<? super String, ? super Object, ?> remappingFunction){
+        inflate();
+        return super.computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public Object compute(String key, BiFunction<? super String, ? super Object, ?> remappingFunction){
+        inflate();
+        return super.compute(key, remappingFunction);
+    }
+
+    @Override
+    public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ?> remappingFunction){
+        inflate();
+        return super.merge(key, value, remappingFunction);
+    }
+
+    @Override
+    public Set<String> keySet(){
+        return shape == null ? super.keySet() : new KeySet();
+    }
+
+    @Override
+    public Collection<Object> values(){
+        return shape == null ? super.values() : new Values();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet(){
+        return shape == null ? super.entrySet() : new EntrySet();
+    }
+
+    @Override
+    public Object clone(){
+        if(shape == null)
+            return super.clone();
+        return copy();
+    }
+
+
+    /**
+     * Serializes the row as a plain {@code Data}, since the compact storage is not part of the inherited serialized form
+     * @return {@code Data} holding the same entries
+     */
+    private Object writeReplace(){
+        return new Data(this);
+    }
+
+
+    /**
+     * Moves the row into the inherited {@code HashMap} storage, keeping its entries
+     */
+    private void inflate(){
+        if(shape == null)
+            return;
+        Shape current = shape;
+        Object[] entries = new Object[values.length];
+        for(int slot = 0; slot < values.length; slot++)
+            entries[slot] = values[slot] == ABSENT ? ABSENT : value(slot);
+        shape = null;
+        values = null;
+        numbers = null;
+        for(int slot = 0; slot < entries.length; slot++){
+            if(entries[slot] != ABSENT)
+                super.put(current.names[slot], entries[slot]);
+        }
+    }
+
+
+    /**
+     * Returns the value of a slot, boxing numbers stored unboxed
+     * @param slot , the slot of a column
+     * @return The value, {@code null} if it is {@code null} or the column was removed
+     */
+    private Object value(int slot){
+        Object value = values[slot];
+        if(value == ABSENT)
+            return null;
+        if(value == INT)
+            return (int) numbers[slot];
+        if(value == LONG)
+            return numbers[slot];
+        if(value == DOUBLE)
+            return Double.longBitsToDouble(numbers[slot]);
+        return value;
+    }
+
+
+    /**
+     * Stores a value in a slot, unboxing integers, longs and doubles
+     * @param slot , the slot of a column
+     * @param value , the value
+     */
+    private void store(int slot, Object value){
+        Object marker = marker(value);
+        if(marker != null){
+            if(numbers == null)
+                numbers = new long[values.length];
+            numbers[slot] = bits(value);
+            value = marker;
+        }
+        values[slot] = value;
+    }
+
+
+    /**
+     * Returns the marker of a value that is stored unboxed
+     * @param value , the value
+     * @return The marker of its type, {@code null} if it is stored as is
+     */
+    private static Object marker(Object value){
+        if(value instanceof Integer)
+            return INT;
+        if(value instanceof Long)
+            return LONG;
+        if(value instanceof Double)
+            return DOUBLE;
+        return null;
+    }
+
+
+    /**
+     * Returns the unboxed bits of an integer, long or double
+     * @param value , the value
+     * @return {@code long} of the value, or of its raw bits for doubles
+     */
+    private static long bits(Object value){
+        return value instanceof Double ? Double.doubleToRawLongBits((Double) value) : ((Number) value).longValue();
+    }
+
+
+    /**
+     * The column names of a result set and the slot each column is stored in, shared by all of its rows
+     */
+    static final class Shape {
+
+        final String[] names;
+        final int[] slots;
+        private final Map<String, Integer> index;
+
+        private Shape(String[] names, int[] slots, Map<String, Integer> index){
+            this.names = names;
+            this.slots = slots;
+            this.index = index;
+        }
+
+        /**
+         * Builds the shape of a result set. Columns sharing a name share a slot, the last one being kept, as with {@code put()}.
+         * @param metaData , the metadata of the result set
+         * @return The {@code Shape} of its columns
+         * @throws SQLException if the metadata could not be read
+         */
+        static Shape of(ResultSetMetaData metaData) throws SQLException {
+            int count = metaData.getColumnCount();
+            Map<String, Integer> index = new HashMap<>();
+            String[] names = new String[count];
+            int[] slots = new int[count];
+            int width = 0;
+            for(int column = 0; column < count; column++){
+                String name = metaData.getColumnName(column + 1);
+                Integer slot = index.get(name);
+                if(slot == null){
+                    slot = width++;
+                    index.put(name, slot);
+                    names[slot] = name;
+                }
+                slots[column] = slot;
+            }
+            return new Shape(Arrays.copyOf(names, width), slots, index);
+        }
+
+        /**
+         * Returns the slot of a column
+         * @param key , the name of the column
+         * @return {@code int} of the slot, {@code -1} if it is not a column of this shape
+         */
+        int slot(Object key){
+            Integer slot = index.get(key);
+            return slot == null ? -1 : slot;
+        }
+    }
+
+
+    /**
+     * Iterates over the present slots of the row, failing if the row moves into the {@code HashMap} storage meanwhile
+     */
+    private abstract class SlotIterator<E> implements Iterator<E> {
+
+        private final Object[] owner = values;
+        private int next = advance(0);
+        private int last = -1;
+
+        private int advance(int from){
+            while(from < owner.length && owner[from] == ABSENT)
+                from++;
+            return from;
+        }
+
+        @Override
+        public boolean hasNext(){
+            return next < owner.length;
+        }
+
+        int nextSlot(){
+            if(values != owner)
+                throw new ConcurrentModificationException();
+            if(next >= owner.length)
+                throw new NoSuchElementException();
+            last = next;
+            next = advance(next + 1);
+            return last;
+        }
+
+        @Override
+        public void remove(){
+            if(values != owner)
+                throw new ConcurrentModificationException();
+            if(last < 0 || values[last] == ABSENT)
+                throw new IllegalStateException();
+            values[last] = ABSENT;
+            size--;
+        }
+    }
+
+
+    private final class KeySet extends AbstractSet<String> {
+
+        @Override
+        public Iterator<String> iterator(){
+            return new SlotIterator<String>(){
+                @Override
+                public String next(){
+                    int slot = nextSlot();
+                    return shape.names[slot];
+                }
+            };
+        }
+
+        @Override
+        public int size(){
+            return RowData.this.size();
+        }
+
+        @Override
+        public boolean contains(Object key){
+            return containsKey(key);
+        }
+
+        @Override
+        public boolean remove(Object key){
+            if(!containsKey(key))
+                return false;
+            RowData.this.remove(key);
+            return true;
+        }
+    }
+
+
+    private final class Values extends AbstractCollection<Object> {
+
+        @Override
+        public Iterator<Object> iterator(){
+            return new SlotIterator<Object>(){
+                @Override
+                public Object next(){
+                    return value(nextSlot());
+                }
+            };
+        }
+
+        @Override
+        public int size(){
+            return RowData.this.size();
+        }
+    }
+
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, Object>> {
+
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator(){
+            return new SlotIterator<Map.Entry<String, Object>>(){
+                @Override
+                public Map.Entry<String, Object> next(){
+                    return new SlotEntry(nextSlot());
+                }
+            };
+        }
+
+        @Override
+        public int size(){
+            return RowData.this.size();
+        }
+    }
+
+
+    /**
+     * An entry of the row that reads and writes its slot
+     */
+    private final class SlotEntry implements Map.Entry<String, Object> {
+
+        private final int slot;
+        private final String key;
+
+        SlotEntry(int slot){
+            this.slot = slot;
+            this.key = shape.names[slot];
+        }
+
+        @Override
+        public String getKey(){
+            return key;
+        }
+
+        @Override
+        public Object getValue(){
+            return shape == null ? RowData.this.get(key) : value(slot);
+        }
+
+        @Override
+        public Object setValue(Object value){
+            return RowData.this.put(key, value);
+        }
+
+        @Override
+        public boolean equals(Object other){
+            if(!(other instanceof Map.Entry))
+                return false;
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) other;
+            return key.equals(entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode(){
+            return key.hashCode() ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString(){
+            return key + "=" + getValue();
+        }
+    }
+}
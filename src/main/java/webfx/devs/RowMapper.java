@@ -0,0 +1,328 @@
+package webfx.devs;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Maps the rows of a result set straight into instances of a class, without going through a {@link Data} map.
+ * <p>Columns are matched to the fields of a class, or to the components of a record, by name, ignoring case.
+ * Columns without a matching field, such as {@code id} for classes that do not declare one, are skipped, and fields
+ * without a matching column keep their default value.</p>
+ * <p>A mapper is compiled once per class and column layout: each column gets a reader that uses the typed
+ * {@code ResultSet} getter of its field, so values are never converted to strings, except characters and enums, which
+ * are stored as text. Classes are created through their no-argument constructor and records through their canonical constructor.</p>
+ * @param <T> the type of the mapped instances
+ */
+final class RowMapper<T> {
+
+    private static final ClassValue<Map<String, RowMapper<?>>> CACHE = new ClassValue<>(){
+        @Override
+        protected Map<String, RowMapper<?>> computeValue(Class<?> type){
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final Class<T> type;
+    private final MethodHandle constructor;
+    private final Setter[] setters;
+    private final Reader[] readers;
+    private final int[] positions;
+    private final Object[] defaults;
+
+
+    private RowMapper(Class<T> type, String[] columns){
+        this.type = type;
+        try{
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            if(type.isRecord()){
+                RecordComponent[] components = type.getRecordComponents();
+                Class<?>[] parameters = new Class<?>[components.length];
+                for(int i = 0; i < components.length; i++)
+                    parameters[i] = components[i].getType();
+                this.constructor = lookup.findConstructor(type, MethodType.methodType(void.class, parameters))
+                    .asSpreader(Object[].class, components.length);
+                this.setters = null;
+                this.readers = new Reader[components.length];
+                this.positions = new int[components.length];
+                this.defaults = new Object[components.length];
+                Map<String, Integer> byName = columnIndex(columns);
+                for(int i = 0; i < components.length; i++){
+                    Integer column = byName.get(components[i].getName().toLowerCase(Locale.ROOT));
+                    positions[i] = column == null ? 0 : column;
+                    readers[i] = reader(components[i].getType());
+                    defaults[i] = defaultValue(components[i].getType());
+                }
+            }
+            else{
+                this.constructor = lookup.findConstructor(type, MethodType.methodType(void.class));
+                this.readers = null;
+                this.defaults = null;
+                Map<String, Field> fields = new HashMap<>();
+                for(Field field : type.getDeclaredFields()){
+                    if(!Modifier.isStatic(field.getModifiers()))
+                        fields.putIfAbsent(field.getName().toLowerCase(Locale.ROOT), field);
+                }
+                this.setters = new Setter[columns.length];
+                this.positions = new int[columns.length];
+                for(int i = 0; i < columns.length; i++){
+                    Field field = fields.get(columns[i].toLowerCase(Locale.ROOT));
+                    positions[i] = i + 1;
+                    setters[i] = field == null ? null : setter(lookup, field);
+                }
+            }
+        } catch (NoSuchMethodException e){
+            throw new IllegalArgumentException(type.getName() + " needs a no-argument constructor to be mapped from rows", e);
+        } catch (IllegalAccessException e){
+            throw new IllegalArgumentException(type.getName() + " cannot be accessed to be mapped from rows", e);
+        }
+    }
+
+
+    /**
+     * Returns the mapper of a class for the columns of a result set, compiling it on first use
+     * @param <T> the type of the mapped instances
+     * @param type , the class or record to map rows into
+     * @param metaData , the metadata of the result set
+     * @return The {@code RowMapper} of the class and column layout
+     * @throws SQLException if the metadata could not be read
+     * @throws IllegalArgumentException if the class cannot be instantiated
+     */
+    @SuppressWarnings("unchecked")
+    static <T> RowMapper<T> of(Class<T> type, ResultSetMetaData metaData) throws SQLException {
+        String[] columns = new String[metaData.getColumnCount()];
+        for(int i = 0; i < columns.length; i++)
+            columns[i] = metaData.getColumnName(i + 1);
+        return (RowMapper<T>) CACHE.get(type).computeIfAbsent(String.join("\u0000", columns), key -> new RowMapper<>(type, columns));
+    }
+
+
+    /**
+     * Maps the current row of a result set into a new instance
+     * @param resultSet , the result set, positioned on a row
+     * @return The instance of the row
+     * @throws SQLException if a column could not be read
+     */
+    T map(ResultSet resultSet) throws SQLException {
+        try{
+            if(setters == null){
+                Object[] arguments = new Object[readers.length];
+                for(int i = 0; i < readers.length; i++){
+                    Object value = positions[i] == 0 ? null : readers[i].read(resultSet, positions[i]);
+                    arguments[i] = value == null ? defaults[i] : value;
+                }
+                return type.cast(constructor.invoke(arguments));
+            }
+            Object instance = constructor.invoke();
+            for(int i = 0; i < setters.length; i++){
+                if(setters[i] != null)
+                    setters[i].set(instance, resultSet, positions[i]);
+            }
+            return type.cast(instance);
+        } catch (SQLException | RuntimeException | Error e){
+            throw e;
+        } catch (Throwable e){
+            throw new SQLException("Could not map a row into " + type.getName(), e);
+        }
+    }
+
+
+    /**
+     * Indexes column positions by their lower-cased name, keeping the first of duplicated names
+     * @param columns , the column names, in result set order
+     * @return {@code Map<String, Integer>} of each name to its 1-based position
+     */
+    private static Map<String, Integer> columnIndex(String[] columns){
+        Map<String, Integer> index = new HashMap<>();
+        for(int i = 0; i < columns.length; i++)
+            index.putIfAbsent(columns[i].toLowerCase(Locale.ROOT), i + 1);
+        return index;
+    }
+
+
+    /**
+     * Builds the setter of a field, reading its column with the getter matching the field's type
+     * <p>Primitive fields are read and written without boxing. {@code NULL} columns leave primitive fields at their
+     * default value and set reference fields to {@code null}.</p>
+     * @param lookup , a lookup with private access to the field's class
+     * @param field , the field to set
+     * @return The {@code Setter} of the field
+     */
+    private static Setter setter(MethodHandles.Lookup lookup, Field field){
+        VarHandle handle = null;
+        if(!Modifier.isFinal(field.getModifiers())){
+            try{
+                handle = lookup.unreflectVarHandle(field);
+            } catch (IllegalAccessException | RuntimeException e){
+                handle = null;
+            }
+        }
+        Class<?> type = field.getType();
+        if(handle != null){
+            VarHandle var = handle;
+            if(type == int.class)
+                return (instance, resultSet, column) -> var.set(instance, resultSet.getInt(column));
+            if(type == long.class)
+                return (instance, resultSet, column) -> var.set(instance, resultSet.getLong(column));
+            if(type == double.class)
+                return (instance, resultSet, column) -> var.set(instance, resultSet.getDouble(column));
+            if(type == float.class)
+                return (instance, resultSet, column) -> var.set(instance, resultSet.getFloat(column));
+            if(type == boolean.class)
+                return (instance, resultSet, column) -> var.set(instance, resultSet.getBoolean(column));
+            if(type == short.class)
+                return (instance, resultSet, column) -> var.set(instance, resultSet.getShort(column));
+            if(type == byte.class)
+                return (instance, resultSet, column) -> var.set(instance, resultSet.getByte(column));
+            Reader reader = reader(type);
+            Object fallback = defaultValue(type);
+            return (instance, resultSet, column) -> {
+                Object value = reader.read(resultSet, column);
+                var.set(instance, value == null ? fallback : value);
+            };
+        }
+        field.setAccessible(true);
+        Reader reader = reader(type);
+        Object fallback = defaultValue(type);
+        return (instance, resultSet, column) -> {
+            Object value = reader.read(resultSet, column);
+            try{
+                field.set(instance, value == null ? fallback : value);
+            } catch (IllegalAccessException e){
+                throw new SQLException("Could not set the field " + field.getName(), e);
+            }
+        };
+    }
+
+
+    /**
+     * Returns the reader of a column for a field or component type, {@code null} for {@code NULL} columns
+     * <p>Characters and enums are stored as text, so they are read with {@code getString()}, from the first character
+     * and from the constant's name. Other types are read with {@code getObject()} and must match the driver's value.</p>
+     * @param type , the type the column is read as
+     * @return The {@code Reader} using the matching {@code ResultSet} getter
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Reader reader(Class<?> type){
+        if(type == String.class)
+            return ResultSet::getString;
+        if(type == int.class || type == Integer.class)
+            return (resultSet, column) -> {
+                int value = resultSet.getInt(column);
+                return resultSet.wasNull() ? null : value;
+            };
+        if(type == long.class || type == Long.class)
+            return (resultSet, column) -> {
+                long value = resultSet.getLong(column);
+                return resultSet.wasNull() ? null : value;
+            };
+        if(type == double.class || type == Double.class)
+            return (resultSet, column) -> {
+                double value = resultSet.getDouble(column);
+                return resultSet.wasNull() ? null : value;
+            };
+        if(type == float.class || type == Float.class)
+            return (resultSet, column) -> {
+                float value = resultSet.getFloat(column);
+                return resultSet.wasNull() ? null : value;
+            };
+        if(type == boolean.class || type == Boolean.class)
+            return (resultSet, column) -> {
+                boolean value = resultSet.getBoolean(column);
+                return resultSet.wasNull() ? null : value;
+            };
+        if(type == short.class || type == Short.class)
+            return (resultSet, column) -> {
+                short value = resultSet.getShort(column);
+                return resultSet.wasNull() ? null : value;
+            };
+        if(type == byte.class || type == Byte.class)
+            return (resultSet, column) -> {
+                byte value = resultSet.getByte(column);
+                return resultSet.wasNull() ? null : value;
+            };
+        if(type == byte[].class)
+            return ResultSet::getBytes;
+        if(type == BigDecimal.class)
+            return ResultSet::getBigDecimal;
+        if(type == char.class || type == Character.class)
+            return (resultSet, column) -> {
+                String value = resultSet.getString(column);
+                return value == null || value.isEmpty() ? null : value.charAt(0);
+            };
+        if(type.isEnum()){
+            Class<? extends Enum> enumType = (Class<? extends Enum>) type;
+            return (resultSet, column) -> {
+                String value = resultSet.getString(column);
+                try{
+                    return value == null ? null : Enum.valueOf(enumType, value);
+                } catch (IllegalArgumentException e){
+                    throw new SQLException("No constant " + value + " in " + type.getName(), e);
+                }
+            };
+        }
+        return (resultSet, column) -> {
+            Object value = resultSet.getObject(column);
+            if(value == null || type.isInstance(value))
+                return value;
+            throw new SQLException("A " + value.getClass().getSimpleName() + " column cannot be read into a field of type " + type.getName());
+        };
+    }
+
+
+    /**
+     * Returns the value a field of a type holds when its column is {@code NULL}
+     * @param type , the type of the field
+     * @return The boxed zero value of a primitive type, {@code null} otherwise
+     */
+    private static Object defaultValue(Class<?> type){
+        if(type == int.class)
+            return 0;
+        if(type == long.class)
+            return 0L;
+        if(type == double.class)
+            return 0d;
+        if(type == float.class)
+            return 0f;
+        if(type == boolean.class)
+            return false;
+        if(type == short.class)
+            return (short) 0;
+        if(type == byte.class)
+            return (byte) 0;
+        if(type == char.class)
+            return '\0';
+        return null;
+    }
+
+
+    /**
+     * Reads a column of the current row
+     */
+    @FunctionalInterface
+    private interface Reader {
+        Object read(ResultSet resultSet, int column) throws SQLException;
+    }
+
+
+    /**
+     * Reads a column of the current row into a field of an instance
+     */
+    @FunctionalInterface
+    private interface Setter {
+        void set(Object instance, ResultSet resultSet, int column) throws SQLException;
+    }
+}
@@ -0,0 +1,122 @@
+package webfx.devs;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+
+/**
+ * A bounded cache of prepared statements for a single {@code Connection}, keyed by their SQL text.
+ * <p>Statements are reused across calls instead of being prepared again, and are closed when they are evicted
+ * or the cache is closed. Callers must not close the statements they get from the cache, only their result sets.</p>
+ */
+public final class StatementCache {
+
+    private final Connection connection;
+    private final LruCache<String, PreparedStatement> statements;
+
+
+    /**
+     * Creates a statement cache for a connection
+     * @param connection , the connection statements are prepared on
+     * @param capacity , the maximum number of statements kept open, at least 1
+     */
+    StatementCache(Connection connection, int capacity){
+        this.connection = connection;
+        this.statements = new LruCache<>(Math.max(1, capacity), statement -> 1, StatementCache::close);
+    }
+
+
+    /**
+     * Returns the cached statement for the SQL, preparing it on a miss
+     * @param sql , the SQL of the statement
+     * @return The {@code PreparedStatement}, owned by the cache
+     * @throws SQLException if the statement could not be prepared
+     */
+    PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if(statement == null || statement.isClosed()){
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+
+    /**
+     * Closes and removes every cached statement, e.g. after the schema has changed
+     */
+    void invalidateAll(){
+        statements.invalidateAll();
+    }
+
+
+    /**
+     * Sets the maximum number of statements kept open, closing the least recently used ones if needed
+     * @param capacity , the maximum number of statements, at least 1
+     */
+    void setCapacity(int capacity){
+        statements.setMaxWeight(Math.max(1, capacity));
+    }
+
+
+    /**
+     * Returns the maximum number of statements kept open
+     * @return {@code int} the capacity
+     */
+    public int getCapacity(){
+        return (int) statements.getMaxWeight();
+    }
+
+    /**
+     * Returns the number of statements currently open in the cache
+     * @return {@code int} the size
+     */
+    public int size(){
+        return statements.size();
+    }
+
+    /**
+     * Returns the number of times a cached statement was reused
+     * @return {@code long} the hits
+     */
+    public long getHits(){
+        return statements.getHits();
+    }
+
+    /**
+     * Returns the number of times a statement had to be prepared
+     * @return {@code long} the misses
+     */
+    public long getMisses(){
+        return statements.getMisses();
+    }
+
+    /**
+     * Returns the number of statements closed to stay within the capacity
+     * @return {@code long} the evictions
+     */
+    public long getEvictions(){
+        return statements.getEvictions();
+    }
+
+
+    @Override
+    public String toString(){
+        return "StatementCache[size=" + size() + "/" + getCapacity() + ", hits=" + getHits() + ", misses=" + getMisses()
+            + ", evictions=" + getEvictions() + "]";
+    }
+
+
+    /**
+     * Closes a statement that left the cache
+     * @param statement , the statement to close
+     */
+    private static void close(PreparedStatement statement){
+        try{
+            statement.close();
+        } catch (SQLException e){
+            e.printStackTrace();
+        }
+    }
+}
@@ -3,7 +3,7 @@ package webfx.devs;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Map;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
@@ -21,6 +21,9 @@ import com.google.gson.JsonSyntaxException;
 public class TemplateEngine {
     
     private static boolean running = true;
+    private static final Pattern HEAD_TAG = Pattern.compile("<head(\\s[^>]*)?>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern BASE_TAG = Pattern.compile("<base[\\s>]", Pattern.CASE_INSENSITIVE);
+    private static final LruCache<String, CompiledTemplate> templates = new LruCache<>(4L * 1024 * 1024, CompiledTemplate::weight);
 
 
     private TemplateEngine(){}
@@ -40,11 +43,7 @@ public class TemplateEngine {
             JsonElement jsonElement = JsonParser.parseString(data);
             if(jsonElement.isJsonObject()){
                 JsonObject json = jsonElement.getAsJsonObject();
-                for(Map.Entry<String, JsonElement> entry : json.entrySet()){
-                    content = content.replaceAll("\\{\\{" + Pattern.quote(entry.getKey()) + "\\}\\}", entry.getValue().getAsString());
-                }
-                content = clearPlaceholders(content);
-                ResourceManager.writeToFile(output, content);
+                ResourceManager.writeToFile(output, compile(content).render(json));
             }
             else{
                 return;
@@ -55,6 +54,28 @@ public class TemplateEngine {
         }
     }
 
+    /**
+     * Injects data into the template and returns the result without writing it anywhere
+     * <p> This can be used whether or not the engine is running. {@code TemplateEngine.setRunning()} sets whether
+     * or not the template runs</p>
+     * @param content The raw template string with placeholders
+     * @param data JSON string representing key-value pairs
+     * @return {@code String} of the new content, or the unchanged content if the engine is not running or the data is not a JSON object
+     */
+    public static String injectData(String content, String data){
+        if(!running)
+            return content;
+        try{
+            JsonElement jsonElement = JsonParser.parseString(data);
+            if(!jsonElement.isJsonObject())
+                return content;
+            return compile(content).render(jsonElement.getAsJsonObject());
+        }catch (JsonSyntaxException e){
+            e.printStackTrace();
+            return content;
+        }
+    }
+
     /**
      * Clears all the placeholders in a given {@code Path} and rewrites the template
      * <p> This can be used whether or not the engine is running. {@code TemplateEngine.setRunning()} sets whether
@@ -65,8 +86,7 @@ public class TemplateEngine {
     public static void clearPlaceholders(Path output, String content){
         if(!running)
             return;
-        content = content.replaceAll("\\{\\{.*\\}\\}", "");
-        ResourceManager.writeToFile(output, content);
+        ResourceManager.writeToFile(output, compile(content).render(null));
     }
 
     /**
@@ -79,7 +99,7 @@ public class TemplateEngine {
     public static String clearPlaceholders(String content){
         if(!running)
             return null;
-        return content.replaceAll("\\{\\{.*\\}\\}", "");
+        return compile(content).render(null);
     }
 
 
@@ -155,6 +175,49 @@ public class TemplateEngine {
     }
 
 
+    /**
+     * Returns the compiled form of a template, parsing it only the first time its content is seen
+     * @param content , The raw template string with placeholders
+     * @return The {@link CompiledTemplate} of the content
+     */
+    public static CompiledTemplate compile(String content){
+        CompiledTemplate template = templates.get(content);
+        if(template == null){
+            template = CompiledTemplate.compile(content);
+            templates.put(content, template);
+        }
+        return template;
+    }
+
+
+    /**
+     * Sets the memory budget for compiled templates, based on the size of their content
+     * @param bytes , the budget in bytes, {@code 0} disables the cache
+     */
+    public static void setTemplateCacheBudget(long bytes){
+        templates.setMaxWeight(bytes);
+    }
+
+
+    /**
+     * Adds a {@code <base>} element to the html so that relative links resolve against {@code href}.
+     * <p>This is needed when html is loaded from memory, since the page would otherwise have no location to resolve
+     * stylesheets, scripts and images against. Content that already declares a {@code <base>} is returned unchanged.</p>
+     * @param content , The html content
+     * @param href , The URL that relative links should resolve against
+     * @return {@code String} of the new content
+     */
+    public static String addBase(String content, String href){
+        if(href == null || BASE_TAG.matcher(content).find())
+            return content;
+        String base = "<base href=\"" + href.replace("\"", "%22") + "\">";
+        Matcher head = HEAD_TAG.matcher(content);
+        if(head.find())
+            return content.substring(0, head.end()) + base + content.substring(head.end());
+        return base + content;
+    }
+
+
     /**
      * Get whether or not the engine runs when templates are rendered
      * @return {@code true} if the template engine is active; {@code false} otherwise
@@ -0,0 +1,94 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Unit tests for the group commit of the AsyncDatabase.
+ */
+public class AsyncDatabaseTest 
+{
+    public static class Account {
+        @Unique String email;
+
+        Account(String email){
+            this.email = email;
+        }
+    }
+
+    @Rule
+    public TemporaryDatabase database = new TemporaryDatabase();
+
+    @Before
+    public void setUp()
+    {
+        assertTrue( Database.createTable("Account", Account.class) );
+    }
+
+    @After
+    public void tearDown()
+    {
+        AsyncDatabase.shutdown().join();
+        AsyncDatabase.setCommitWindow(2, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void failingWriteIsRolledBackAloneWithinItsGroup()
+    {
+        AsyncDatabase.setCommitWindow(200, TimeUnit.MILLISECONDS);
+        long commits = AsyncDatabase.getCommits();
+        CompletableFuture<Void> first = AsyncDatabase.insert("Account", new Account("a@x"));
+        CompletableFuture<Void> duplicate = AsyncDatabase.insert("Account", new Account("a@x"));
+        CompletableFuture<Void> last = AsyncDatabase.insert("Account", new Account("b@x"));
+        first.join();
+        last.join();
+        try{
+            duplicate.join();
+            throw new AssertionError("The duplicate insert should fail");
+        }catch(CompletionException e){
+            assertTrue( duplicate.isCompletedExceptionally() );
+        }
+        assertEquals( 1, AsyncDatabase.getCommits() - commits );
+        assertEquals( 2, Database.getAll("Account").size() );
+    }
+
+    @Test
+    public void shutdownCompletesAfterItsWritesAndKeepsOneWriter() throws Exception
+    {
+        AsyncDatabase.setCommitWindow(0, TimeUnit.MILLISECONDS);
+        AtomicInteger pending = new AtomicInteger();
+        List<CompletableFuture<Void>> stops = new ArrayList<>();
+        int writers = 0;
+        for(int round = 0; round < 20; round++){
+            List<CompletableFuture<Void>> inserts = new ArrayList<>();
+            for(int i = 0; i < 50; i++)
+                inserts.add(AsyncDatabase.insert("Account", new Account(round + "-" + i + "@x")));
+            stops.add(AsyncDatabase.shutdown().thenRun(() -> {
+                for(CompletableFuture<Void> insert : inserts)
+                    if(!insert.isDone())
+                        pending.incrementAndGet();
+            }));
+            int alive = 0;
+            for(Thread thread : Thread.getAllStackTraces().keySet())
+                if(thread.getName().equals("webfx-database-writer"))
+                    alive++;
+            writers = Math.max(writers, alive);
+        }
+        CompletableFuture.allOf(stops.toArray(new CompletableFuture<?>[0])).join();
+        assertEquals( 0, pending.get() );
+        assertTrue( writers <= 1 );
+        assertEquals( 1000, Database.getAll("Account").size() );
+    }
+}
@@ -0,0 +1,72 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Unit tests for the parsing and rendering of compiled templates.
+ */
+public class CompiledTemplateTest 
+{
+    private static JsonObject json(String json)
+    {
+        return JsonParser.parseString(json).getAsJsonObject();
+    }
+
+    @Test
+    public void keepsTheTextBetweenPlaceholdersOnOneLine()
+    {
+        CompiledTemplate template = CompiledTemplate.compile("<p>{{first}} and {{last}}!</p>");
+        assertArrayEquals( new String[]{"first", "last"}, template.getKeys() );
+        assertEquals( "<p>Ada and Lovelace!</p>", template.render(json("{\"first\":\"Ada\",\"last\":\"Lovelace\"}")) );
+        assertEquals( "<p>AdaLovelace</p>", CompiledTemplate.compile("<p>{{first}}{{last}}</p>").render(json("{\"first\":\"Ada\",\"last\":\"Lovelace\"}")) );
+    }
+
+    @Test
+    public void leavesAnUnclosedPlaceholderAsText()
+    {
+        CompiledTemplate unclosed = CompiledTemplate.compile("<p>{{name</p>\n<p>}} {{name}}</p>");
+        assertArrayEquals( new String[]{"name"}, unclosed.getKeys() );
+        assertEquals( "<p>{{name</p>\n<p>}} Ada</p>", unclosed.render(json("{\"name\":\"Ada\"}")) );
+
+        CompiledTemplate trailing = CompiledTemplate.compile("<p>{{name}}</p><p>{{rest");
+        assertArrayEquals( new String[]{"name"}, trailing.getKeys() );
+        assertEquals( "<p>Ada</p><p>{{rest", trailing.render(json("{\"name\":\"Ada\"}")) );
+    }
+
+    @Test
+    public void insertsValuesLiterally()
+    {
+        CompiledTemplate template = CompiledTemplate.compile("<p>{{price}}</p><p>{{path}}</p>");
+        JsonObject data = new JsonObject();
+        data.addProperty("price", "$1 and $2");
+        data.addProperty("path", "C:\\temp\\$0");
+        assertEquals( "<p>$1 and $2</p><p>C:\\temp\\$0</p>", template.render(data) );
+    }
+
+    @Test
+    public void fillsRepeatedKeysEverywhere()
+    {
+        CompiledTemplate template = CompiledTemplate.compile("{{name}}, {{name}}\n{{name}}");
+        assertArrayEquals( new String[]{"name", "name", "name"}, template.getKeys() );
+        assertEquals( "Ada, Ada\nAda", template.render(json("{\"name\":\"Ada\"}")) );
+        assertEquals( ", \n", template.render(null) );
+    }
+
+    @Test
+    public void reusesTheCompiledTemplateForTheSameContent()
+    {
+        String content = "<p>{{cached}}</p>";
+        CompiledTemplate template = TemplateEngine.compile(content);
+        assertSame( template, TemplateEngine.compile(new String(content)) );
+        assertNotSame( template, TemplateEngine.compile("<p>{{other}}</p>") );
+        assertEquals( "<p>hit</p>", TemplateEngine.compile(content).render(json("{\"cached\":\"hit\"}")) );
+    }
+}
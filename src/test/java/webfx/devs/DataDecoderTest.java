@@ -0,0 +1,79 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the single-pass JSON decoder.
+ */
+public class DataDecoderTest 
+{
+    @Test
+    public void leavesAreDecodedIntoNativeValues() throws IOException
+    {
+        Data data = new DataDecoder().decode("{\"s\":\"text\",\"i\":42,\"big\":12345678901234,\"d\":1.5,\"e\":1e3,\"b\":true,\"n\":null,"
+            + "\"o\":{\"k\":[1,\"two\",null,{\"x\":false}]}}");
+        assertEquals( "text", data.get("s") );
+        assertEquals( 42L, data.get("i") );
+        assertEquals( 12345678901234L, data.get("big") );
+        assertEquals( 1.5, data.get("d") );
+        assertEquals( 1000.0, data.get("e") );
+        assertEquals( Boolean.TRUE, data.get("b") );
+        assertFalse( data.containsKey("n") );
+        List<Object> list = data.getData("o").getList("k");
+        assertEquals( 3, list.size() );
+        assertEquals( "two", list.get(1) );
+        assertEquals( Boolean.FALSE, ((Data) list.get(2)).get("x") );
+    }
+
+    @Test
+    public void wholeNumbersTooLargeForALongBecomeDoubles() throws IOException
+    {
+        assertEquals( 1e20, new DataDecoder().decode("{\"n\":100000000000000000000}").get("n") );
+    }
+
+    @Test
+    public void depthIsLimited() throws IOException
+    {
+        DataDecoder decoder = new DataDecoder(3, 100);
+        assertTrue( decoder.decode("{\"a\":{\"b\":{\"c\":1}}}").containsKey("a") );
+        assertRejected( decoder, "{\"a\":{\"b\":{\"c\":{}}}}" );
+        assertRejected( decoder, "{\"a\":[[[1]]]}" );
+    }
+
+    @Test
+    public void elementCountIsLimited() throws IOException
+    {
+        DataDecoder decoder = new DataDecoder(10, 5);
+        assertEquals( 3, decoder.decode("{\"a\":[1,2,3]}").getList("a").size() );
+        assertRejected( decoder, "{\"a\":[1,2,3,4]}" );
+    }
+
+    @Test
+    public void malformedJsonIsRejected()
+    {
+        DataDecoder decoder = new DataDecoder();
+        assertRejected( decoder, "[1,2]" );
+        assertRejected( decoder, "{\"a\":1} {\"b\":2}" );
+        assertRejected( decoder, "{\"a\":" );
+        assertNull( DataManager.jsonToData("{\"a\":") );
+    }
+
+    private static void assertRejected(DataDecoder decoder, String json)
+    {
+        try{
+            decoder.decode(json);
+            fail( "Should reject: " + json );
+        }catch(IOException e){
+            //Expected
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the type conversions of the DataManager.
+ */
+public class DataManagerTest 
+{
+    private static final Class<?>[] TYPES = {String.class, int.class, Integer.class, long.class, Long.class, double.class,
+        Double.class, float.class, Float.class, boolean.class, Boolean.class};
+
+    @Test
+    public void nativeValuesConvertLikeTheirText()
+    {
+        Object[] values = {0, -7, 42L, Integer.MAX_VALUE + 1L, (1L << 53), 1.5, -0.25, 3.0, 1e300, 0.1f, 2.5f, 7f,
+            (short) 3, (byte) -2, true, false, " padded "};
+        for(Object value : values){
+            for(Class<?> type : TYPES){
+                assertEquals( value + " as " + type.getSimpleName(),
+                    DataManager.checkDataType(type, value.toString()), DataManager.checkDataType(type, value) );
+            }
+        }
+    }
+
+    @Test
+    public void floatsAreNotWidenedToTheirBinaryValue()
+    {
+        assertEquals( 0.1, DataManager.checkDataType(double.class, 0.1f) );
+        assertEquals( 0.1f, DataManager.checkDataType(Float.class, 0.1f) );
+    }
+
+    @Test
+    public void longsBeyondDoublePrecisionStayExact()
+    {
+        long value = (1L << 53) + 1;
+        assertEquals( value, DataManager.checkDataType(long.class, value) );
+        //The text path rounds through a double
+        assertEquals( (long) (double) value, DataManager.checkDataType(long.class, Long.toString(value)) );
+    }
+}
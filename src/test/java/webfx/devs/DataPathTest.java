@@ -0,0 +1,117 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the compiled paths of {@code Data.find()}.
+ */
+public class DataPathTest 
+{
+    private static Data item(String name, Object price)
+    {
+        Data item = new Data();
+        item.put("name", name);
+        if(price != null)
+            item.put("price", price);
+        return item;
+    }
+
+    private static Data order()
+    {
+        ArrayList<Object> items = new ArrayList<>();
+        items.add(item("pen", 2));
+        items.add(item("gift card", null));
+        items.add(item("book", 12));
+        Data customer = new Data();
+        customer.put("name", "ada");
+        Data order = new Data();
+        order.put("items", items);
+        order.put("customer", customer);
+        order.put("a.b", "literal");
+        order.put("odd[key", "literal");
+        return order;
+    }
+
+    @Test
+    public void followsKeysAndPositions()
+    {
+        Data order = order();
+        assertEquals( "ada", order.find("customer.name") );
+        assertEquals( "book", order.find("items[2].name") );
+        assertEquals( 12, DataPath.compile("items[2].price").find(order) );
+        assertNull( order.find("items[3].name") );
+        assertNull( order.find("customer[0]") );
+        assertNull( order.find("items.name") );
+        assertNull( order.find("missing.name") );
+    }
+
+    @Test
+    public void wildcardsMatchEveryElement()
+    {
+        Data order = order();
+        assertEquals( List.of(2, 12), order.find("items[*].price") );
+        assertEquals( List.of("pen", "gift card", "book"), order.findAll("items[*].name") );
+        assertEquals( List.of(2), order.findAll("items[0].price") );
+        assertTrue( order.findAll("customer[*].name").isEmpty() );
+        assertTrue( DataPath.compile("items[*].price").isWildcard() );
+        assertFalse( DataPath.compile("items[0].price").isWildcard() );
+        List<Object> names = new ArrayList<>();
+        DataPath.compile("items[*].name").forEach(order, names::add);
+        assertEquals( 3, names.size() );
+    }
+
+    @Test
+    public void nestedWildcardsFlattenTheMatches()
+    {
+        ArrayList<Object> rows = new ArrayList<>();
+        rows.add(new ArrayList<>(List.of(1, 2)));
+        rows.add(new ArrayList<>(List.of(3)));
+        Data grid = new Data();
+        grid.put("rows", rows);
+        assertEquals( List.of(1, 2, 3), grid.findAll("rows[*][*]") );
+        assertEquals( 3, grid.find("rows[1][0]") );
+    }
+
+    @Test
+    public void compiledPathsAreCached()
+    {
+        DataPath path = DataPath.compile("customer.name");
+        assertSame( path, DataPath.compile("customer.name") );
+        assertSame( path, DataPath.cached("customer.name") );
+        assertEquals( "customer.name", path.toString() );
+        assertSame( DataPath.INVALID, DataPath.cached("items[x]") );
+        assertSame( DataPath.INVALID, DataPath.cached(null) );
+    }
+
+    @Test
+    public void rejectsMalformedPaths()
+    {
+        for(String path : new String[]{"items[x]", "items[-1]", "items[1", "items[0]name", "items[]", null}){
+            try{
+                DataPath.compile(path);
+                fail( "Compiled " + path );
+            } catch (IllegalArgumentException e){
+            }
+        }
+    }
+
+    @Test
+    public void invalidPathsAreLookedUpAsKeys()
+    {
+        Data order = order();
+        assertEquals( "literal", order.find("odd[key") );
+        assertNull( order.findAll("odd[key") );
+        //A valid path is followed rather than looked up as a key
+        assertNull( order.find("a.b") );
+    }
+}
@@ -0,0 +1,110 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Unit tests for the Data-to-JSON serializer, checked against Gson's output.
+ */
+public class DataSerializerTest 
+{
+    private static final Gson GSON = new Gson();
+
+    public enum Color { RED }
+
+    private static Data sample()
+    {
+        Data inner = new Data();
+        inner.put("quote", "say \"hi\"\\");
+        inner.put("html", "<a href='x'>&amp;</a> a=b");
+        inner.put("controls", "\n\r\t\b\f\u0001 ");
+        inner.put("unicode", "café 😀");
+        inner.put("missing", null);
+        ArrayList<Object> list = new ArrayList<>();
+        list.add(1);
+        list.add(2.5);
+        list.add(null);
+        list.add(inner);
+        list.add(new ArrayList<>());
+        Data data = new Data();
+        data.put("int", 42);
+        data.put("long", 9007199254740993L);
+        data.put("double", -0.125);
+        data.put("float", 1.5f);
+        data.put("bool", true);
+        data.put("char", 'c');
+        data.put("color", Color.RED);
+        data.put("list", list);
+        data.put("nested", inner);
+        data.put("empty", new Data());
+        data.put("none", null);
+        return data;
+    }
+
+    @Test
+    public void matchesGson()
+    {
+        Data data = sample();
+        assertEquals( GSON.toJson(data), DataSerializer.toJson(data) );
+        assertEquals( GSON.toJson(List.of("a", 1, true)), DataSerializer.toJson(List.of("a", 1, true)) );
+        assertEquals( GSON.toJson(new int[]{1, 2}), DataSerializer.toJson(new int[]{1, 2}) );
+    }
+
+    @Test
+    public void dropsNullEntries()
+    {
+        Data data = new Data();
+        data.put("a", null);
+        data.put("b", JsonNull.INSTANCE);
+        assertEquals( "{}", DataSerializer.toJson(data) );
+        assertEquals( "null", DataSerializer.toJson(null) );
+    }
+
+    @Test
+    public void writesGsonElementsAsTheirValues()
+    {
+        JsonObject object = new JsonObject();
+        object.addProperty("text", "a<b");
+        object.addProperty("number", 3);
+        object.addProperty("flag", false);
+        object.add("nothing", JsonNull.INSTANCE);
+        JsonArray array = new JsonArray();
+        array.add(1.5);
+        array.add("x");
+        Data data = new Data();
+        data.put("object", object);
+        data.put("array", array);
+        data.put("primitive", new JsonPrimitive("p"));
+        assertEquals( GSON.toJson(data), DataSerializer.toJson(data) );
+    }
+
+    @Test
+    public void rejectsValuesJsonCannotHold()
+    {
+        Data data = new Data();
+        data.put("nan", Double.NaN);
+        try{
+            DataSerializer.toJson(data);
+            fail( "NaN was serialized" );
+        } catch (IllegalArgumentException e){
+        }
+        List<Object> loop = new ArrayList<>();
+        loop.add(loop);
+        try{
+            DataSerializer.toJson(loop);
+            fail( "A list containing itself was serialized" );
+        } catch (IllegalArgumentException e){
+        }
+    }
+}
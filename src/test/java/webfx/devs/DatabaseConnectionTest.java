@@ -0,0 +1,203 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Unit tests for the writer connection and the pool of read-only connections of the Database.
+ */
+public class DatabaseConnectionTest 
+{
+    public static class Item {
+        String name;
+
+        Item(String name){
+            this.name = name;
+        }
+    }
+
+    public static class Tool {
+        String name;
+        int weight;
+
+        Tool(String name, int weight){
+            this.name = name;
+            this.weight = weight;
+        }
+    }
+
+    @Rule
+    public TemporaryDatabase database = new TemporaryDatabase();
+
+    @Before
+    public void setUp()
+    {
+        assertTrue( Database.createTable("Item", Item.class) );
+        assertTrue( Database.insert("Item", new Item("committed")) );
+    }
+
+    @Test
+    public void readsRunWhileAWriteIsInProgress() throws Exception
+    {
+        try(ConnectionManager.Lease lease = Database.writer()){
+            Database.insertRecord(lease, "Item", new Item("pending"));
+            //Another thread reads the last committed state without waiting for the writer
+            List<Data> rows = CompletableFuture.supplyAsync(() -> Database.getAll("Item")).get(2, TimeUnit.SECONDS);
+            assertEquals( 1, rows.size() );
+            assertEquals( "committed", rows.get(0).get("name") );
+            //The thread holding the writer sees its own uncommitted row
+            assertEquals( 2, Database.getAll("Item").size() );
+            lease.connection().commit();
+        }
+        Database.tableWritten("Item");
+        assertEquals( 2, CompletableFuture.supplyAsync(() -> Database.getAll("Item")).get(2, TimeUnit.SECONDS).size() );
+    }
+
+    @Test
+    public void concurrentReadsAndWritesDoNotFail() throws Exception
+    {
+        List<CompletableFuture<?>> tasks = new ArrayList<>();
+        tasks.add(CompletableFuture.runAsync(() -> {
+            for(int i = 0; i < 50; i++)
+                assertTrue( Database.insert("Item", new Item("w" + i)) );
+        }));
+        for(int t = 0; t < 4; t++){
+            tasks.add(CompletableFuture.runAsync(() -> {
+                for(int i = 0; i < 200; i++)
+                    assertNotNull( Database.get("Item", "1") );
+            }));
+        }
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).get(30, TimeUnit.SECONDS);
+        assertEquals( 51, Database.getAll("Item").size() );
+    }
+
+    @Test
+    public void rollsBackWhatTheWriterLeftUncommitted() throws Exception
+    {
+        try(ConnectionManager.Lease lease = Database.writer()){
+            Database.insertRecord(lease, "Item", new Item("abandoned"));
+        }
+        assertTrue( Database.insert("Item", new Item("next")) );
+        assertEquals( 2, Database.getAll("Item").size() );
+        assertTrue( Database.getAll("Item", "name = ?", "abandoned").isEmpty() );
+    }
+
+    @Test
+    public void keepsTheTransactionOpenUntilTheOutermostRelease() throws Exception
+    {
+        try(ConnectionManager.Lease outer = Database.writer()){
+            try(ConnectionManager.Lease inner = Database.writer()){
+                Database.insertRecord(inner, "Item", new Item("nested"));
+            }
+            outer.connection().commit();
+        }
+        assertEquals( 1, Database.getAll("Item", "name = ?", "nested").size() );
+    }
+
+    @Test
+    public void recreatesADroppedTable()
+    {
+        assertEquals( 1, Database.getAll("Item").size() );
+        assertTrue( Database.dropTable("Item") );
+        assertTrue( Database.createTable("Item", Tool.class) );
+        assertTrue( Database.insert("Item", new Tool("hammer", 3)) );
+        List<Data> rows = Database.getAll("Item");
+        assertEquals( 1, rows.size() );
+        assertEquals( "hammer", rows.get(0).get("name") );
+        assertEquals( 3, ((Number) rows.get(0).get("weight")).intValue() );
+    }
+
+    @Test
+    public void failsWhenNoReaderIsFreedInTime() throws SQLException
+    {
+        try(ConnectionManager manager = ConnectionManager.open("jdbc:sqlite:" + database.getFile().getPath(), 1, 4);
+            ConnectionManager.Lease leased = manager.reader()){
+            long start = System.nanoTime();
+            try{
+                manager.reader();
+                fail( "Taking a reader should time out while the only one is leased" );
+            }catch(SQLException e){
+                assertTrue( System.nanoTime() - start >= TimeUnit.SECONDS.toNanos(4) );
+            }
+            assertFalse( leased.connection().isClosed() );
+        }
+    }
+
+    @Test
+    public void closesLeasedConnectionsWhenTheyAreReturned() throws SQLException
+    {
+        ConnectionManager manager = ConnectionManager.open("jdbc:sqlite:" + database.getFile().getPath(), 2, 4);
+        ConnectionManager.Lease reader = manager.reader();
+        ConnectionManager.Lease idle = manager.reader();
+        idle.close();
+        ConnectionManager.Lease writer = manager.writer();
+        manager.close();
+        assertTrue( idle.connection().isClosed() );
+        assertFalse( reader.connection().isClosed() );
+        assertFalse( writer.connection().isClosed() );
+        try(Statement statement = reader.connection().createStatement()){
+            assertTrue( statement.executeQuery("SELECT * FROM Item").next() );
+        }
+        reader.close();
+        writer.close();
+        assertTrue( reader.connection().isClosed() );
+        assertTrue( writer.connection().isClosed() );
+        try{
+            manager.reader();
+            fail( "A closed manager should not lease readers" );
+        }catch(SQLException e){
+            assertEquals( "The database connection is closed", e.getMessage() );
+        }
+    }
+
+    @Test
+    public void closesTheWriterWhenItsOutermostLeaseIsReturned() throws SQLException
+    {
+        ConnectionManager manager = ConnectionManager.open("jdbc:sqlite:" + database.getFile().getPath(), 1, 4);
+        ConnectionManager.Lease outer = manager.writer();
+        ConnectionManager.Lease inner = manager.reader();
+        manager.close();
+        inner.close();
+        assertFalse( outer.connection().isClosed() );
+        outer.close();
+        assertTrue( outer.connection().isClosed() );
+    }
+
+    @Test
+    public void failsToLeaseFromAClosedManagerWithoutReaders() throws SQLException
+    {
+        ConnectionManager manager = ConnectionManager.open("jdbc:sqlite:" + database.getFile().getPath(), 0, 4);
+        ConnectionManager.Lease writer;
+        try(ConnectionManager.Lease reader = manager.reader()){
+            writer = reader;
+        }
+        manager.close();
+        assertTrue( writer.connection().isClosed() );
+        try{
+            manager.reader();
+            fail( "A closed manager should not lease the writer as a reader" );
+        }catch(SQLException e){
+            assertEquals( "The database connection is closed", e.getMessage() );
+        }
+        try{
+            manager.writer();
+            fail( "A closed manager should not lease the writer" );
+        }catch(SQLException e){
+            assertEquals( "The database connection is closed", e.getMessage() );
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Unit tests for the indexes created from {@code @Indexed} and {@code @Unique} fields.
+ */
+public class DatabaseIndexTest 
+{
+    public static class Event {
+        @Unique String code;
+        @Indexed(name = "place", order = 1) String room;
+        @Indexed(name = "place", order = 0) String city;
+        @Unique(name = "slot", order = 0) String day;
+        @Unique(name = "slot", order = 1) int hour;
+        @Ignore @Indexed String cached;
+
+        Event(String code, String city, String room, String day, int hour){
+            this.code = code;
+            this.city = city;
+            this.room = room;
+            this.day = day;
+            this.hour = hour;
+        }
+    }
+
+    @Rule
+    public TemporaryDatabase database = new TemporaryDatabase();
+
+    private static List<String> indexes()
+    {
+        List<String> sql = new ArrayList<>();
+        for(Data row : Database.getAll("sqlite_master", "type = ? AND sql IS NOT NULL ORDER BY name", "index"))
+            sql.add((String) row.get("sql"));
+        return sql;
+    }
+
+    @Test
+    public void buildsCompositeIndexesInOrder()
+    {
+        assertEquals( List.of(
+                "CREATE UNIQUE INDEX IF NOT EXISTS uq_Event_code ON Event (code)",
+                "CREATE INDEX IF NOT EXISTS idx_Event_place ON Event (city, room)",
+                "CREATE UNIQUE INDEX IF NOT EXISTS uq_Event_slot ON Event (day, hour)"),
+            EntityMetadata.of(Event.class).createIndexSql("Event") );
+    }
+
+    @Test
+    public void createsIndexesOnceAndPerTable()
+    {
+        assertTrue( Database.createTable("Event", Event.class) );
+        assertTrue( Database.createTable("Event", Event.class) );
+        assertTrue( Database.createTable("Archive", Event.class) );
+        List<String> indexes = indexes();
+        assertEquals( 6, indexes.size() );
+        assertTrue( indexes.get(0), indexes.get(0).startsWith("CREATE INDEX idx_Archive_place") );
+        assertTrue( Database.explain("Event", "city = ? AND room = ?", "Oslo", "A").get(0).contains("idx_Event_place") );
+    }
+
+    @Test
+    public void enforcesUniqueIndexes()
+    {
+        assertTrue( Database.createTable("Event", Event.class) );
+        assertTrue( Database.insert("Event", new Event("e1", "Oslo", "A", "mon", 9)) );
+        assertFalse( Database.insert("Event", new Event("e1", "Oslo", "B", "tue", 9)) );
+        assertFalse( Database.insert("Event", new Event("e2", "Oslo", "B", "mon", 9)) );
+        assertTrue( Database.insert("Event", new Event("e2", "Oslo", "B", "mon", 10)) );
+        assertEquals( 2, Database.getAll("Event").size() );
+    }
+}
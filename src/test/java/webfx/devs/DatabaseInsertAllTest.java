@@ -0,0 +1,171 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Unit tests for the batched inserts of the Database.
+ */
+public class DatabaseInsertAllTest 
+{
+    public static class Item {
+        String name;
+        @Nullable String note;
+
+        Item(String name, String note){
+            this.name = name;
+            this.note = note;
+        }
+    }
+
+    public static class Other {
+        String name;
+
+        Other(String name){
+            this.name = name;
+        }
+    }
+
+    @Rule
+    public TemporaryDatabase database = new TemporaryDatabase();
+
+    @Before
+    public void setUp()
+    {
+        assertTrue( Database.createTable("Item", Item.class) );
+    }
+
+    private static List<Object> items(int count)
+    {
+        List<Object> items = new ArrayList<>();
+        for(int i = 0; i < count; i++)
+            items.add(new Item("i" + i, i % 2 == 0 ? null : "odd"));
+        return items;
+    }
+
+    private static int rows()
+    {
+        return Database.getAll("Item").size();
+    }
+
+    @Test
+    public void commitsEveryBatch()
+    {
+        List<Database.BatchResult> results = Database.insertAll("Item", items(25), 10);
+        assertEquals( 3, results.size() );
+        for(int i = 0; i < 3; i++){
+            assertEquals( i, results.get(i).getIndex() );
+            assertTrue( results.get(i).isSuccessful() );
+            assertNull( results.get(i).getError() );
+        }
+        assertEquals( 10, results.get(0).getRecords() );
+        assertEquals( 5, results.get(2).getRecords() );
+        assertEquals( 5, results.get(2).getInserted() );
+        assertEquals( 25, rows() );
+    }
+
+    @Test
+    public void aNullRecordOnlyRollsBackItsBatch()
+    {
+        List<Object> items = items(30);
+        items.set(15, null);
+        List<Database.BatchResult> results = Database.insertAll("Item", items, 10);
+        assertTrue( results.get(0).isSuccessful() );
+        assertFalse( results.get(1).isSuccessful() );
+        assertEquals( 0, results.get(1).getInserted() );
+        assertEquals( 10, results.get(1).getRecords() );
+        assertTrue( results.get(2).isSuccessful() );
+        assertEquals( 20, rows() );
+        assertTrue( Database.getAll("Item", "name = ?", "i14").isEmpty() );
+        assertEquals( 1, Database.getAll("Item", "name = ?", "i20").size() );
+    }
+
+    @Test
+    public void aNullNonNullableFieldOnlyRollsBackItsBatch()
+    {
+        List<Object> items = items(20);
+        items.set(3, new Item(null, "no name"));
+        List<Database.BatchResult> results = Database.insertAll("Item", items, 10);
+        assertFalse( results.get(0).isSuccessful() );
+        assertTrue( results.get(0).getError().contains("name") );
+        assertTrue( results.get(1).isSuccessful() );
+        assertEquals( 10, rows() );
+    }
+
+    @Test
+    public void aRecordOfAnotherClassOnlyRollsBackItsBatch()
+    {
+        List<Object> items = items(20);
+        items.set(12, new Other("other"));
+        List<Database.BatchResult> results = Database.insertAll("Item", items, 10);
+        assertTrue( results.get(0).isSuccessful() );
+        assertFalse( results.get(1).isSuccessful() );
+        assertEquals( 10, rows() );
+    }
+
+    @Test
+    public void consumesAnIterator()
+    {
+        List<Database.BatchResult> results = Database.insertAll("Item",
+                IntStream.range(0, 2500).mapToObj(i -> new Item("s" + i, null)).iterator(), 1000);
+        assertEquals( 3, results.size() );
+        assertEquals( 500, results.get(2).getInserted() );
+        assertEquals( 2500, rows() );
+    }
+
+    @Test
+    public void rejectsInvalidArguments()
+    {
+        assertNull( Database.insertAll("Item", items(5), 0) );
+        assertNull( Database.insertAll("Item", (List<Object>) null) );
+        assertNotNull( Database.insertAll("Item", new ArrayList<>()) );
+        assertEquals( 0, rows() );
+    }
+
+    @Test
+    public void aFailingIteratorLeavesNoRecordsBehind()
+    {
+        Iterator<Object> failing = new Iterator<Object>() {
+            int next = 0;
+
+            @Override
+            public boolean hasNext()
+            {
+                return true;
+            }
+
+            @Override
+            public Object next()
+            {
+                if(next == 13)
+                    throw new IllegalStateException("source failed");
+                return new Item("ghost" + next++, null);
+            }
+        };
+        try{
+            Database.insertAll("Item", failing, 10);
+            fail( "The iterator's exception should be rethrown" );
+        }catch(IllegalStateException e){
+            assertEquals( "source failed", e.getMessage() );
+        }
+        assertEquals( 10, rows() );
+        List<Object> real = new ArrayList<>();
+        real.add(new Item("real", null));
+        assertTrue( Database.insertAll("Item", real).get(0).isSuccessful() );
+        assertEquals( 11, rows() );
+        assertTrue( Database.getAll("Item", "name = ?", "ghost12").isEmpty() );
+    }
+}
@@ -0,0 +1,151 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Unit tests for the keyset and offset pagination of the Database.
+ */
+public class DatabasePageTest 
+{
+    public static class Entry {
+        @Indexed @Nullable Integer rank;
+        String label;
+
+        Entry(Integer rank, String label){
+            this.rank = rank;
+            this.label = label;
+        }
+    }
+
+    @Rule
+    public TemporaryDatabase database = new TemporaryDatabase();
+
+    @Before
+    public void setUp()
+    {
+        assertTrue( Database.createTable("Entry", Entry.class) );
+        List<Entry> entries = new ArrayList<>();
+        for(int i = 0; i < 47; i++)
+            entries.add(new Entry(i % 5 == 0 ? null : i % 7, "e" + i));
+        Database.insertAll("Entry", entries);
+    }
+
+    /**
+     * Pages through the table and returns the labels in page order
+     */
+    private List<String> walk(String orderColumn, int pageSize)
+    {
+        List<String> labels = new ArrayList<>();
+        String token = null;
+        do{
+            Database.Page page = Database.page("Entry", orderColumn, pageSize, token);
+            assertTrue( page.getRows().size() <= pageSize );
+            for(Data row : page.getRows())
+                labels.add((String) row.get("label"));
+            token = page.getNextToken();
+        } while(token != null);
+        return labels;
+    }
+
+    /**
+     * Returns the labels of the whole table in the expected order, NULLs first
+     */
+    private List<String> expected(String orderColumn)
+    {
+        List<String> labels = new ArrayList<>();
+        for(Data row : Database.getAll("Entry", "1 = 1 ORDER BY " + orderColumn + ", id"))
+            labels.add((String) row.get("label"));
+        return labels;
+    }
+
+    @Test
+    public void keysetPagesVisitEveryRowOnceInOrder()
+    {
+        for(int pageSize : new int[]{1, 4, 10, 47, 100}){
+            assertEquals( expected("rank"), walk("rank", pageSize) );
+            assertEquals( expected("id"), walk("id", pageSize) );
+        }
+    }
+
+    @Test
+    public void keysetPageCrossesFromNullToValues()
+    {
+        //10 of the 47 ranks are NULL, so the second page starts in the NULL region and ends past it
+        Database.Page first = Database.page("Entry", "rank", 6, null);
+        Database.Page second = Database.page("Entry", "rank", 6, first.getNextToken());
+        assertNull( second.getRows().get(0).get("rank") );
+        assertEquals( 0L, ((Number) second.getRows().get(5).get("rank")).longValue() );
+    }
+
+    @Test
+    public void lastPageHasNoToken()
+    {
+        Database.Page page = Database.page("Entry", 47, null);
+        assertEquals( 47, page.getRows().size() );
+        assertFalse( page.hasNext() );
+    }
+
+    @Test
+    public void keysetPageWithWhereClause()
+    {
+        List<String> labels = new ArrayList<>();
+        String token = null;
+        do{
+            Database.Page page = Database.page("Entry", "rank", "rank >= ?", 3, token, 4);
+            for(Data row : page.getRows())
+                labels.add((String) row.get("label"));
+            token = page.getNextToken();
+        } while(token != null);
+        List<String> expected = new ArrayList<>();
+        for(Data row : Database.getAll("Entry", "rank >= ? ORDER BY rank, id", 4))
+            expected.add((String) row.get("label"));
+        assertEquals( expected, labels );
+    }
+
+    @Test
+    public void invalidTokensAreRejected()
+    {
+        assertNull( Database.page("Entry", "rank", 5, "not-a-token") );
+        String idToken = Database.page("Entry", 5, null).getNextToken();
+        assertNull( Database.page("Entry", "rank", 5, idToken) );
+        assertNull( Database.page("Entry", "rank; DROP TABLE Entry", 5, null) );
+    }
+
+    @Test
+    public void mismatchedParametersAreRejected()
+    {
+        assertNull( Database.page("Entry", "rank", "rank >= ?", 5, null) );
+        assertNull( Database.page("Entry", "rank", "rank >= ?", 5, null, 4, 5) );
+        assertNull( Database.page("Entry", "rank", "rank >= ?", 5, null, (Object[]) null) );
+        assertNull( Database.page("Entry", "rank", null, 5, null, 4) );
+    }
+
+    @Test
+    public void offsetPagesCarryTheNextOffset()
+    {
+        Database.Page page = Database.pageOffset("Entry", "rank", 20, 0);
+        assertEquals( "20", page.getNextToken() );
+        page = Database.pageOffset("Entry", "rank", 20, 40);
+        assertEquals( 7, page.getRows().size() );
+        assertFalse( page.hasNext() );
+        assertEquals( expected("rank").subList(40, 47), labels(page) );
+    }
+
+    private static List<String> labels(Database.Page page)
+    {
+        List<String> labels = new ArrayList<>();
+        for(Data row : page.getRows())
+            labels.add((String) row.get("label"));
+        return labels;
+    }
+}
@@ -0,0 +1,77 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Unit tests for the column projection of the Database reads.
+ */
+public class DatabaseProjectionTest 
+{
+    public static class Article {
+        String title;
+        String author;
+        String body;
+
+        Article(String title, String author, String body){
+            this.title = title;
+            this.author = author;
+            this.body = body;
+        }
+    }
+
+    @Rule
+    public TemporaryDatabase database = new TemporaryDatabase();
+
+    @Before
+    public void setUp()
+    {
+        assertTrue( Database.createTable("Article", Article.class) );
+        List<Article> articles = new ArrayList<>();
+        for(int i = 0; i < 6; i++)
+            articles.add(new Article("t" + i, i % 2 == 0 ? "ann" : "bob", "a long body " + i));
+        Database.insertAll("Article", articles);
+    }
+
+    @Test
+    public void readsOnlyTheListedColumns()
+    {
+        Data article = Database.get("Article", "2", List.of("id", "title"));
+        assertEquals( 2, article.size() );
+        assertEquals( "t1", article.get("title") );
+        assertFalse( article.containsKey("body") );
+        assertNull( Database.get("Article", "99", List.of("title")) );
+    }
+
+    @Test
+    public void projectsEveryOrTheMatchingRecords()
+    {
+        List<Data> all = Database.getAll("Article", List.of("title"));
+        assertEquals( 6, all.size() );
+        assertEquals( 1, all.get(0).size() );
+        List<Data> bob = Database.getAll("Article", List.of("title", "author"), "author = ?", "bob");
+        assertEquals( 3, bob.size() );
+        assertEquals( "t1", bob.get(0).get("title") );
+        assertFalse( bob.get(0).containsKey("body") );
+    }
+
+    @Test
+    public void rejectsInvalidColumnsAndParameters()
+    {
+        assertNull( Database.getAll("Article", List.of()) );
+        assertNull( Database.getAll("Article", List.of("title; DROP TABLE Article")) );
+        assertNull( Database.get("Article", "1", List.of("title", "*")) );
+        assertNull( Database.getAll("Article", List.of("title"), null, "bob") );
+        assertNull( Database.getAll("Article", List.of("title"), "author = ? AND title = ?", "bob") );
+        assertEquals( 6, Database.getAll("Article").size() );
+    }
+}
@@ -0,0 +1,83 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Unit tests for the typed parameters and query plans of the Database.
+ */
+public class DatabaseQueryTest 
+{
+    public enum Role { ADMIN, USER }
+
+    public static class User {
+        String name;
+        @Indexed int age;
+        boolean active;
+        @Nullable String role;
+
+        User(String name, int age, boolean active, Role role){
+            this.name = name;
+            this.age = age;
+            this.active = active;
+            this.role = role == null ? null : role.name();
+        }
+    }
+
+    @Rule
+    public TemporaryDatabase database = new TemporaryDatabase();
+
+    @Before
+    public void setUp()
+    {
+        assertTrue( Database.createTable("User", User.class) );
+        List<User> users = new ArrayList<>();
+        for(int i = 0; i < 20; i++)
+            users.add(new User("u" + i, i, i % 2 == 0, i < 2 ? Role.ADMIN : i < 15 ? Role.USER : null));
+        Database.insertAll("User", users);
+    }
+
+    @Test
+    public void bindsNumbersAsNumbers()
+    {
+        assertEquals( 5, Database.getAll("User", "age >= ?", (Object) 15).size() );
+        assertEquals( 5, Database.getAll("User", "age + 0 >= ?", (Object) 15).size() );
+        assertEquals( 5, Database.getAll("User", "age + 0 >= ?", (Object) 15L).size() );
+        assertEquals( 4, Database.getAll("User", "age + 0 > ?", (Object) 15.5).size() );
+        //Bound as text, the number compares greater than every age
+        assertEquals( 0, Database.getAll("User", "age + 0 >= ?", "15").size() );
+    }
+
+    @Test
+    public void bindsBooleansEnumsAndNulls()
+    {
+        assertEquals( 10, Database.getAll("User", "active = ?", true).size() );
+        assertEquals( 2, Database.getAll("User", "role = ?", Role.ADMIN).size() );
+        assertEquals( 5, Database.getAll("User", "role IS ?", (Object) null).size() );
+        assertEquals( 0, Database.getAll("User", "role = ?", (Object) null).size() );
+    }
+
+    @Test
+    public void rejectsAMismatchedNumberOfParameters()
+    {
+        assertNull( Database.getAll("User", "age > ? AND active = ?", (Object) 3) );
+    }
+
+    @Test
+    public void explainsTheQueryPlan()
+    {
+        List<String> plan = Database.explain("User", "age > ?", 3);
+        assertEquals( 1, plan.size() );
+        assertTrue( plan.get(0), plan.get(0).startsWith("SEARCH User USING INDEX idx_User_age") );
+        assertTrue( Database.explain("User", "name = ?", "u1").get(0).startsWith("SCAN User") );
+        assertNull( Database.explain("User", "missing = ?", 1) );
+    }
+}
@@ -0,0 +1,120 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Unit tests for the streaming reads of the Database.
+ */
+public class DatabaseStreamTest 
+{
+    public static class Entry {
+        String level;
+        int number;
+
+        Entry(String level, int number){
+            this.level = level;
+            this.number = number;
+        }
+    }
+
+    //A single reader, so a stream that keeps its connection makes the next read time out
+    @Rule
+    public TemporaryDatabase database = new TemporaryDatabase(1);
+
+    @Before
+    public void setUp()
+    {
+        assertTrue( Database.createTable("Entry", Entry.class) );
+        List<Entry> entries = new ArrayList<>();
+        for(int i = 0; i < 50; i++)
+            entries.add(new Entry(i % 5 == 0 ? "error" : "info", i));
+        Database.insertAll("Entry", entries);
+    }
+
+    private static void assertReaderIsFree()
+    {
+        long start = System.nanoTime();
+        assertNotNull( Database.getAll("Entry", "number = ?", (Object) 1) );
+        assertTrue( System.nanoTime() - start < 2_000_000_000L );
+    }
+
+    @Test
+    public void streamsEveryMatchingRow()
+    {
+        try(Stream<Data> rows = Database.stream("Entry", "level = ?", 3, "error")){
+            List<Object> numbers = rows.map(row -> row.get("number")).collect(Collectors.toList());
+            assertEquals( 10, numbers.size() );
+            assertEquals( 45, ((Number) numbers.get(9)).intValue() );
+        }
+        try(Stream<Data> rows = Database.stream("Entry", 0)){
+            assertEquals( 50, rows.count() );
+        }
+    }
+
+    @Test
+    public void closingAPartlyReadStreamReleasesItsReader()
+    {
+        Stream<Data> rows = Database.stream("Entry", 5);
+        Iterator<Data> iterator = rows.iterator();
+        assertTrue( iterator.hasNext() );
+        assertNotNull( iterator.next() );
+        rows.close();
+        assertReaderIsFree();
+    }
+
+    @Test
+    public void readingTheLastRowReleasesTheReader()
+    {
+        Stream<Data> rows = Database.stream("Entry", "level = ?", 0, "info");
+        assertEquals( 40, rows.collect(Collectors.toList()).size() );
+        assertReaderIsFree();
+    }
+
+    @Test
+    public void rejectsInvalidArguments()
+    {
+        assertNull( Database.stream(null, 0) );
+        assertNull( Database.stream(" ", 0) );
+        assertNull( Database.stream("Entry", "", 0) );
+        assertNull( Database.stream("Entry", null, 0) );
+        assertNull( Database.stream("Entry", "level = ?", 0) );
+        assertNull( Database.stream("Entry", "level = ?", 0, "error", "info") );
+        assertNull( Database.stream("Entry", "level = ?", 0, " ") );
+        assertNull( Database.stream("Entry", "level = ?", 0, (String[]) null) );
+        assertNull( Database.stream("Missing", 0) );
+        assertReaderIsFree();
+    }
+
+    @Test
+    public void throwsReadErrorsAsIllegalStateExceptions()
+    {
+        //abs() of the smallest integer fails with an integer overflow, on the row whose number is 3 only
+        String overflow = "abs(CASE WHEN number = 3 THEN -9223372036854775807 - 1 ELSE number END) >= 0 AND level <> ?";
+        try(Stream<Data> rows = Database.stream("Entry", overflow, 0, "debug")){
+            Iterator<Data> iterator = rows.iterator();
+            assertEquals( 0, ((Number) iterator.next().get("number")).intValue() );
+            try{
+                while(iterator.hasNext())
+                    iterator.next();
+                fail( "The overflow should stop the stream" );
+            }catch(IllegalStateException e){
+                assertTrue( e.getMessage().startsWith("Database error while streaming from Entry") );
+            }
+        }
+        assertReaderIsFree();
+    }
+}
@@ -0,0 +1,148 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for the endpoint index written by the EndpointProcessor and read by the EndpointIndex.
+ */
+public class EndpointIndexTest 
+{
+    public static class Pages {
+        @Endpoint(name = "home")
+        public static Object home(Data data){ return data; }
+
+        @Endpoint(name = "about")
+        static void about(){}
+
+        public static void helper(){}
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Writes an index into a folder and returns a class loader that sees it along with the test classes
+     */
+    private ClassLoader indexed(String... lines) throws IOException
+    {
+        File root = folder.newFolder();
+        File index = new File(root, EndpointIndex.LOCATION);
+        index.getParentFile().mkdirs();
+        Files.write(index.toPath(), List.of(lines), StandardCharsets.UTF_8);
+        return new URLClassLoader(new URL[]{root.toURI().toURL()}, getClass().getClassLoader());
+    }
+
+    private static List<String> names(Set<Method> methods)
+    {
+        List<String> names = new ArrayList<>();
+        for(Method method : methods)
+            names.add(method.getName());
+        names.sort(null);
+        return names;
+    }
+
+    @Test
+    public void resolvesTheListedEndpoints() throws Exception
+    {
+        String pages = Pages.class.getName();
+        ClassLoader loader = indexed(
+            "home\t" + pages + "\thome",
+            "about\t" + pages + "\tabout",
+            //Not annotated, renamed, malformed and missing entries are skipped
+            "helper\t" + pages + "\thelper",
+            "renamed\t" + pages + "\thome",
+            "malformed line",
+            "gone\twebfx.devs.Missing\tgone");
+        assertEquals( List.of("about", "home"), names(EndpointIndex.load(loader, "webfx.devs")) );
+        assertEquals( List.of("about", "home"), names(EndpointIndex.load(loader, "webfx")) );
+        assertEquals( List.of("about", "home"), names(EndpointIndex.load(loader, null)) );
+    }
+
+    @Test
+    public void returnsNullWithoutEndpointsInThePackage() throws Exception
+    {
+        ClassLoader loader = indexed("home\t" + Pages.class.getName() + "\thome");
+        assertNull( EndpointIndex.load(loader, "webfx.dev") );
+        assertNull( EndpointIndex.load(loader, "other") );
+        assertNull( EndpointIndex.load(indexed("gone\twebfx.devs.Missing\tgone"), "webfx.devs") );
+        assertNull( EndpointIndex.load(getClass().getClassLoader(), "webfx.devs") );
+    }
+
+    /**
+     * Compiles sources with the EndpointProcessor into an output folder and returns the sorted lines of the index written there
+     */
+    private static List<String> compile(File output, File... sources) throws IOException
+    {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        String library = new File(Endpoint.class.getProtectionDomain().getCodeSource().getLocation().getPath()).getPath();
+        List<String> arguments = new ArrayList<>(List.of("-proc:full", "-processor", EndpointProcessor.class.getName(),
+            "-classpath", library + File.pathSeparator + output.getPath(), "-processorpath", library, "-d", output.getPath()));
+        for(File source : sources)
+            arguments.add(source.getPath());
+        assertEquals( 0, compiler.run(null, null, null, arguments.toArray(new String[0])) );
+        File index = new File(output, EndpointIndex.LOCATION);
+        List<String> lines = index.exists() ? new ArrayList<>(Files.readAllLines(index.toPath())) : new ArrayList<>();
+        lines.sort(null);
+        return lines;
+    }
+
+    private File source(String name, String code) throws IOException
+    {
+        File source = new File(folder.getRoot(), "src/app/" + name + ".java");
+        source.getParentFile().mkdirs();
+        Files.write(source.toPath(), ("package app;\nimport webfx.devs.*;\n" + code).getBytes(StandardCharsets.UTF_8));
+        return source;
+    }
+
+    @Test
+    public void writesAnIndexTheRouterCanLoad() throws Exception
+    {
+        File output = folder.newFolder("classes");
+        List<String> index = compile(output, source("Shop",
+            "public class Shop {\n"
+            + "  @Endpoint(name = \"cart\") public static Object cart(Data data){ return data; }\n"
+            + "  public static class Admin { @Endpoint(name = \"stock\") static void stock(){} }\n"
+            + "}\n"));
+        assertEquals( List.of("cart\tapp.Shop\tcart", "stock\tapp.Shop$Admin\tstock"), index );
+        ClassLoader loader = new URLClassLoader(new URL[]{output.toURI().toURL()}, getClass().getClassLoader());
+        assertEquals( List.of("cart", "stock"), names(EndpointIndex.load(loader, "app")) );
+    }
+
+    @Test
+    public void keepsTheEntriesOfClassesNotRecompiled() throws Exception
+    {
+        File output = folder.newFolder("classes");
+        File shop = source("Shop", "public class Shop { @Endpoint(name = \"cart\") public static void cart(){} }\n");
+        File blog = source("Blog", "public class Blog { @Endpoint(name = \"post\") public static void post(){} }\n");
+        compile(output, shop, blog);
+        //Only Blog changes: Shop's entry is kept and Blog's is replaced
+        blog = source("Blog", "public class Blog { @Endpoint(name = \"article\") public static void article(){} }\n");
+        assertEquals( List.of("article\tapp.Blog\tarticle", "cart\tapp.Shop\tcart"), compile(output, blog) );
+        //Blog loses its endpoints, which leaves only Shop's
+        blog = source("Blog", "public class Blog {}\n");
+        assertEquals( List.of("cart\tapp.Shop\tcart"), compile(output, blog) );
+        //An entry whose class no longer exists is dropped
+        assertTrue( new File(output, "app/Shop.class").delete() );
+        assertEquals( List.of(), compile(output, blog) );
+    }
+}
@@ -0,0 +1,93 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the validation and binding of endpoint methods.
+ */
+public class EndpointInvokerTest 
+{
+    static int calls = 0;
+
+    @Endpoint(name = "echo")
+    public static Object echo(Data data){ return data; }
+
+    @Endpoint(name = "count", async = true)
+    public static void count(){ calls++; }
+
+    @Endpoint(name = "answer")
+    static int answer(){ return 42; }
+
+    @Endpoint(name = "store")
+    static void store(Data data){ data.put("stored", true); }
+
+    @Endpoint(name = "broken")
+    public static void broken(Data data){ throw new IllegalStateException("failed"); }
+
+    @Endpoint(name = "instance")
+    public Object instance(){ return null; }
+
+    @Endpoint(name = "wrong")
+    public static void wrong(String text){ }
+
+    private static Method method(String name) throws Exception
+    {
+        for(Method method : EndpointInvokerTest.class.getDeclaredMethods())
+            if(method.getName().equals(name))
+                return method;
+        throw new NoSuchMethodException(name);
+    }
+
+    @Test
+    public void publicAndPackagePrivateEndpointsAreBound() throws Exception
+    {
+        Data data = new Data();
+        assertSame( data, EndpointInvoker.bind(method("echo")).invoke(data) );
+        assertEquals( 42, EndpointInvoker.bind(method("answer")).invoke(null) );
+        EndpointInvoker store = EndpointInvoker.bind(method("store"));
+        assertTrue( store.acceptsData() );
+        assertNull( store.invoke(data) );
+        assertEquals( true, data.get("stored") );
+        EndpointInvoker count = EndpointInvoker.bind(method("count"));
+        int before = calls;
+        count.invoke(null);
+        assertEquals( before + 1, calls );
+        assertFalse( count.acceptsData() );
+        assertTrue( count.isAsync() );
+    }
+
+    @Test
+    public void invalidSignaturesAreRejectedWhenBinding() throws Exception
+    {
+        assertNull( EndpointInvoker.validate(method("echo")) );
+        assertNotNull( EndpointInvoker.validate(method("instance")) );
+        assertNotNull( EndpointInvoker.validate(method("wrong")) );
+        try{
+            EndpointInvoker.bind(method("wrong"));
+            fail( "A String parameter should be rejected" );
+        }catch(IllegalArgumentException e){
+            //Expected
+        }
+    }
+
+    @Test
+    public void endpointExceptionsArePassedOnUnchanged() throws Exception
+    {
+        try{
+            EndpointInvoker.bind(method("broken")).invoke(new Data());
+            fail( "The endpoint's exception should be thrown" );
+        }catch(IllegalStateException e){
+            assertEquals( "failed", e.getMessage() );
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the per-class persistence metadata.
+ */
+public class EntityMetadataTest 
+{
+    public static class Person {
+        String name;
+        int age;
+        @Nullable Double score;
+        @Ignore String cached;
+        private boolean active;
+
+        Person(String name, int age, Double score){
+            this.name = name;
+            this.age = age;
+            this.score = score;
+            this.active = true;
+        }
+    }
+
+    @Test
+    public void isBuiltOncePerClass()
+    {
+        assertSame( EntityMetadata.of(Person.class), EntityMetadata.of(Person.class) );
+        assertSame( EntityMetadata.of(Person.class).insertSql("People"), EntityMetadata.of(Person.class).insertSql("People") );
+    }
+
+    @Test
+    public void skipsIgnoredFields()
+    {
+        EntityMetadata.Column[] columns = EntityMetadata.of(Person.class).columns();
+        assertEquals( 4, columns.length );
+        assertEquals( "name", columns[0].name );
+        assertEquals( "active", columns[3].name );
+        assertFalse( columns[0].nullable );
+        assertTrue( columns[2].nullable );
+    }
+
+    @Test
+    public void buildsTheTableAndInsertStatements()
+    {
+        EntityMetadata metadata = EntityMetadata.of(Person.class);
+        assertEquals( "CREATE TABLE IF NOT EXISTS People (id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + "name TEXT NOT NULL,age INTEGER NOT NULL,score DOUBLE,active BOOLEAN NOT NULL)", metadata.createTableSql("People") );
+        assertEquals( "INSERT INTO People (name,age,score,active) VALUES (?,?,?,?)", metadata.insertSql("People") );
+        assertEquals( "INSERT INTO People (name,age,active) VALUES (?,?,?)",
+                metadata.insertSql("People", new Object[]{"a", 1, null, true}) );
+    }
+
+    @Test
+    public void readsFieldValues() throws Exception
+    {
+        Person person = new Person("ada", 36, null);
+        EntityMetadata.Column[] columns = EntityMetadata.of(Person.class).columns();
+        assertEquals( "ada", columns[0].get(person) );
+        assertEquals( 36, columns[1].get(person) );
+        assertNull( columns[2].get(person) );
+        assertEquals( true, columns[3].get(person) );
+    }
+}
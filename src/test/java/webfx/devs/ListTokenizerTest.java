@@ -0,0 +1,102 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the list tokenizer behind DataManager.parseList.
+ */
+public class ListTokenizerTest 
+{
+    private static List<String> strings(String list)
+    {
+        return DataManager.parseList(list, String.class);
+    }
+
+    @Test
+    public void keepsEveryElementIncludingTheLast()
+    {
+        assertEquals( Arrays.asList("a", "b", "c"), strings("[a, b, c]") );
+        assertEquals( Arrays.asList("x"), strings(" [ x ] ") );
+        assertEquals( Arrays.asList(1, 2, 3), DataManager.parseList("[1,2,3]", Integer.class) );
+    }
+
+    @Test
+    public void emptyListsHaveNoElements()
+    {
+        assertEquals( new ArrayList<String>(), strings("[]") );
+        assertEquals( new ArrayList<String>(), strings("[  ]") );
+    }
+
+    @Test
+    public void trailingCommaDoesNotAddAnElement()
+    {
+        assertEquals( Arrays.asList("a"), strings("[a,]") );
+        assertEquals( Arrays.asList("a", "b"), strings("[a, b , ]") );
+        assertEquals( Arrays.asList("a", "", "b"), strings("[a,,b]") );
+    }
+
+    @Test
+    public void quotesInsideAnElementAreLiteral()
+    {
+        assertEquals( Arrays.asList("don't", "stop"), strings("[don't, stop]") );
+        assertEquals( Arrays.asList("say \"hi\"", "it's"), strings("[say \"hi\", it's]") );
+    }
+
+    @Test
+    public void quotedElementsKeepCommasAndBrackets()
+    {
+        assertEquals( Arrays.asList("a, b", "c]d", "e"), strings("[\"a, b\", 'c]d', e]") );
+        assertEquals( Arrays.asList("esc \" qA"), strings("[\"esc \\\" q\\u0041\"]") );
+        assertEquals( Arrays.asList("it's"), strings("[\"it's\"]") );
+    }
+
+    @Test
+    public void nestedListsAndObjectsAreKeptWhole()
+    {
+        assertEquals( Arrays.asList("[1, 2]", "[3, \"x,]\"]", "{\"k\": [1]}", "[don't]"),
+            strings("[[1, 2], [3, \"x,]\"], {\"k\": [1]}, [don't]]") );
+        assertEquals( Arrays.asList("1", "2"), strings(strings("[[1, 2]]").get(0)) );
+    }
+
+    @Test
+    public void malformedListsAreRejected()
+    {
+        assertNull( strings("a, b]") );
+        assertNull( strings("[a, b") );
+        assertNull( strings("[\"open]") );
+        assertNull( strings("[a]b]") );
+        assertNull( strings("[[a, b]") );
+        assertNull( strings("[\"a\" b]") );
+        assertNull( DataManager.parseList("[1, x]", Integer.class) );
+    }
+
+    @Test
+    public void getListAsStringReadsListsAndListText()
+    {
+        Data data = new Data();
+        data.put("list", new ArrayList<>(Arrays.asList("a,b", "c")));
+        data.put("text", "[x, \"y, z\", don't]");
+        assertEquals( Arrays.asList("a,b", "c"), data.getListAsString("list") );
+        assertEquals( Arrays.asList("x", "y, z", "don't"), data.getListAsString("text") );
+        assertNull( data.getListAsString("missing") );
+    }
+
+    @Test
+    public void longListsParseInOnePass()
+    {
+        StringBuilder list = new StringBuilder("[");
+        for(int i = 0; i < 100_000; i++)
+            list.append(i).append(", ");
+        list.append("last]");
+        List<String> parsed = strings(list.toString());
+        assertEquals( 100_001, parsed.size() );
+        assertEquals( "last", parsed.get(100_000) );
+    }
+}
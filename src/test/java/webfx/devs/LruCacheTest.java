@@ -0,0 +1,104 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the weight-bounded LRU cache.
+ */
+public class LruCacheTest 
+{
+    @Test
+    public void evictsTheLeastRecentlyUsedEntriesOverBudget()
+    {
+        List<String> removed = new ArrayList<>();
+        LruCache<String, String> cache = new LruCache<>(10, String::length, removed::add);
+        assertTrue( cache.put("a", "aaaa") );
+        assertTrue( cache.put("b", "bbbb") );
+        cache.get("a");
+        assertTrue( cache.put("c", "cccc") );
+        assertNull( cache.get("b") );
+        assertEquals( "aaaa", cache.get("a") );
+        assertEquals( "cccc", cache.get("c") );
+        assertEquals( 8, cache.getWeight() );
+        assertEquals( 1, cache.getEvictions() );
+        assertEquals( List.of("bbbb"), removed );
+    }
+
+    @Test
+    public void replacingAValueUpdatesTheWeight()
+    {
+        List<String> removed = new ArrayList<>();
+        LruCache<String, String> cache = new LruCache<>(100, String::length, removed::add);
+        cache.put("a", "aaaa");
+        cache.put("a", "aa");
+        assertEquals( 2, cache.getWeight() );
+        assertEquals( 1, cache.size() );
+        assertEquals( List.of("aaaa"), removed );
+    }
+
+    @Test
+    public void valuesHeavierThanTheBudgetAreNotCached()
+    {
+        LruCache<String, String> cache = new LruCache<>(3, String::length);
+        cache.put("a", "aa");
+        assertFalse( cache.put("b", "bbbb") );
+        assertFalse( cache.put("c", null) );
+        assertEquals( 1, cache.size() );
+        assertEquals( 2, cache.getWeight() );
+    }
+
+    @Test
+    public void shrinkingTheBudgetEvicts()
+    {
+        LruCache<Integer, String> cache = new LruCache<>(100, String::length);
+        for(int i = 0; i < 10; i++)
+            cache.put(i, "0123456789");
+        cache.setMaxWeight(35);
+        assertEquals( 3, cache.size() );
+        assertEquals( 30, cache.getWeight() );
+        assertNull( cache.get(6) );
+        assertEquals( "0123456789", cache.get(9) );
+        cache.setMaxWeight(0);
+        assertEquals( 0, cache.size() );
+    }
+
+    @Test
+    public void invalidationReleasesWeight()
+    {
+        List<String> removed = new ArrayList<>();
+        LruCache<String, String> cache = new LruCache<>(100, String::length, removed::add);
+        cache.put("user:1", "one");
+        cache.put("user:2", "two");
+        cache.put("page:1", "page");
+        assertEquals( "one", cache.invalidate("user:1") );
+        cache.invalidateIf(key -> key.startsWith("page:"));
+        assertEquals( 3, cache.getWeight() );
+        assertEquals( 2, removed.size() );
+        cache.invalidateAll();
+        assertEquals( 0, cache.getWeight() );
+        assertEquals( 0, cache.size() );
+    }
+
+    @Test
+    public void countsHitsAndMisses()
+    {
+        LruCache<String, String> cache = new LruCache<>(100, String::length);
+        cache.put("a", "a");
+        cache.get("a");
+        cache.get("a");
+        cache.get("b");
+        assertEquals( 2, cache.getHits() );
+        assertEquals( 1, cache.getMisses() );
+        assertEquals( 2 / 3.0, cache.getHitRate(), 1e-9 );
+        cache.resetStats();
+        assertEquals( 0, cache.getHits() );
+    }
+}
@@ -0,0 +1,174 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Unit tests for the query result cache of the Database.
+ */
+public class QueryCacheTest 
+{
+    public static class Item {
+        String name;
+
+        Item(String name){
+            this.name = name;
+        }
+    }
+
+    public static class Tool {
+        String name;
+        int weight;
+
+        Tool(String name, int weight){
+            this.name = name;
+            this.weight = weight;
+        }
+    }
+
+    @Rule
+    public TemporaryDatabase database = new TemporaryDatabase();
+
+    private final QueryCache cache = Database.getQueryCache();
+
+    @Before
+    public void setUp()
+    {
+        assertTrue( Database.createTable("Item", Item.class) );
+        assertTrue( Database.insert("Item", new Item("first")) );
+        Database.setQueryCacheBudget(1 << 20);
+        cache.resetStats();
+    }
+
+    @After
+    public void tearDown()
+    {
+        AsyncDatabase.shutdown().join();
+        Database.setQueryCacheBudget(0);
+    }
+
+    private static int rows()
+    {
+        return Database.getAll("Item").size();
+    }
+
+    @Test
+    public void answersRepeatedQueriesWithCopies()
+    {
+        List<Data> first = Database.getAll("Item", "name = ?", "first");
+        assertEquals( 0, cache.getHits() );
+        first.get(0).put("name", "changed");
+        first.clear();
+        List<Data> second = Database.getAll("Item", "name = ?", "first");
+        assertEquals( 1, cache.getHits() );
+        assertEquals( 1, second.size() );
+        assertEquals( "first", second.get(0).get("name") );
+        second.get(0).put("name", "changed again");
+        assertEquals( "first", Database.getAll("Item", "name = ?", "first").get(0).get("name") );
+        assertEquals( 2, cache.getHits() );
+        assertEquals( 1, cache.size() );
+        assertTrue( cache.getWeight() > 0 );
+        //Different parameters are a different query
+        assertTrue( Database.getAll("Item", "name = ?", "second").isEmpty() );
+        assertEquals( 2, cache.size() );
+    }
+
+    @Test
+    public void dropsResultsWhenTheTableIsWritten()
+    {
+        assertEquals( 1, rows() );
+        assertTrue( Database.insert("Item", new Item("second")) );
+        assertEquals( 2, rows() );
+        List<Item> items = new ArrayList<>();
+        items.add(new Item("third"));
+        Database.insertAll("Item", items);
+        assertEquals( 3, rows() );
+        assertTrue( Database.deleteAll("Item") );
+        assertEquals( 0, rows() );
+        assertTrue( Database.dropTable("Item") );
+        assertTrue( Database.createTable("Item", Tool.class) );
+        assertEquals( 0, rows() );
+        assertTrue( Database.insert("Item", new Tool("hammer", 3)) );
+        assertEquals( 3, ((Number) Database.getAll("Item").get(0).get("weight")).intValue() );
+    }
+
+    @Test
+    public void dropsResultsWhenAsyncWritesCommit()
+    {
+        assertEquals( 1, rows() );
+        AsyncDatabase.insert("Item", new Item("async")).join();
+        assertEquals( 2, rows() );
+        List<Item> items = new ArrayList<>();
+        items.add(new Item("async batch"));
+        AsyncDatabase.insertAll("Item", items).join();
+        assertEquals( 3, rows() );
+        AsyncDatabase.deleteAll("Item").join();
+        assertEquals( 0, rows() );
+    }
+
+    @Test
+    public void matchesTableNamesInAnyCase()
+    {
+        assertEquals( 1, Database.getAll("item").size() );
+        assertEquals( 1, Database.getAll("item").size() );
+        assertEquals( 1, Database.getAll("ITEM").size() );
+        assertEquals( 1, cache.getHits() );
+        assertTrue( Database.insert("Item", new Item("second")) );
+        assertEquals( 2, Database.getAll("item").size() );
+        assertEquals( 2, Database.getAll("ITEM").size() );
+        assertTrue( Database.insert("ITEM", new Item("third")) );
+        assertEquals( 3, Database.getAll("Item").size() );
+        assertEquals( 3, Database.getAll("item").size() );
+        assertEquals( 1, cache.getHits() );
+    }
+
+    @Test
+    public void showsEachBatchOnceItIsCommitted() throws Exception
+    {
+        assertEquals( 1, rows() );
+        List<Integer> seen = new ArrayList<>();
+        Iterator<Item> items = IntStream.range(0, 25).mapToObj(i -> {
+            //Read on another thread, through a reader, once the first and second batches are committed
+            if(i == 15 || i == 24)
+                seen.add(CompletableFuture.supplyAsync(QueryCacheTest::rows).join());
+            return new Item("batch" + i);
+        }).iterator();
+        Database.insertAll("Item", items, 10);
+        assertEquals( 11, (int) seen.get(0) );
+        assertEquals( 21, (int) seen.get(1) );
+        assertEquals( 26, rows() );
+    }
+
+    @Test
+    public void aBudgetOfZeroDisablesTheCache() throws Exception
+    {
+        assertEquals( 1, rows() );
+        assertEquals( 1, cache.size() );
+        Database.setQueryCacheBudget(0);
+        assertEquals( 0, cache.size() );
+        assertEquals( 1, rows() );
+        assertEquals( 1, rows() );
+        assertEquals( 0, cache.getHits() );
+        assertEquals( 0, cache.size() );
+        //A write the cache does not see is still read, since nothing is cached
+        try(ConnectionManager.Lease lease = Database.writer()){
+            Database.insertRecord(lease, "Item", new Item("unseen"));
+            lease.connection().commit();
+        }
+        assertEquals( 2, CompletableFuture.supplyAsync(QueryCacheTest::rows).get(5, TimeUnit.SECONDS).intValue() );
+        assertFalse( cache.isEnabled() );
+    }
+}
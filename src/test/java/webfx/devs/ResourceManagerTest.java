@@ -0,0 +1,97 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for the resource cache of the ResourceManager.
+ */
+public class ResourceManagerTest 
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Class<?> clazz;
+    private long budget;
+    private Path page;
+    private URLClassLoader loader;
+
+    /**
+     * Loaded from the temporary folder's class loader, so resources are resolved against files the test can rewrite
+     */
+    public static class Anchor {}
+
+    @Before
+    public void setUp() throws Exception
+    {
+        clazz = ResourceManager.clazz;
+        budget = ResourceManager.getResourceCache().getMaxWeight();
+        page = folder.newFolder("templates").toPath().resolve("cached.html");
+        write("first");
+        URL classes = Anchor.class.getProtectionDomain().getCodeSource().getLocation();
+        loader = new URLClassLoader(new URL[]{folder.getRoot().toURI().toURL(), classes}, null);
+        ResourceManager.clazz = Class.forName(Anchor.class.getName(), false, loader);
+        ResourceManager.invalidateResources();
+        ResourceManager.getResourceCache().resetStats();
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        ResourceManager.clazz = clazz;
+        ResourceManager.setResourceCacheBudget(budget);
+        ResourceManager.invalidateResources();
+        loader.close();
+    }
+
+    private void write(String content) throws Exception
+    {
+        Files.writeString(page, content);
+    }
+
+    @Test
+    public void servesTheSecondReadFromTheCache() throws Exception
+    {
+        assertEquals( "first", ResourceManager.readFromTemplate("cached") );
+        write("second");
+        assertEquals( "first", ResourceManager.readFromTemplate("cached.html") );
+        assertEquals( "first", ResourceManager.readResource("/templates/cached.html") );
+        assertEquals( 2, ResourceManager.getResourceCache().getHits() );
+        assertEquals( 1, ResourceManager.getResourceCache().getMisses() );
+    }
+
+    @Test
+    public void readsAgainAfterAnInvalidation() throws Exception
+    {
+        assertEquals( "first", ResourceManager.readFromTemplate("cached") );
+        write("second");
+        ResourceManager.invalidateResource("/templates/cached.html");
+        assertEquals( "second", ResourceManager.readFromTemplate("cached") );
+        write("third");
+        ResourceManager.invalidateResources();
+        assertEquals( "third", ResourceManager.readFromTemplate("cached") );
+        assertEquals( 0, ResourceManager.getResourceCache().getHits() );
+    }
+
+    @Test
+    public void readsEveryTimeWithoutABudget() throws Exception
+    {
+        ResourceManager.setResourceCacheBudget(0);
+        assertEquals( "first", ResourceManager.readFromTemplate("cached") );
+        write("second");
+        assertEquals( "second", ResourceManager.readFromTemplate("cached") );
+        assertEquals( 0, ResourceManager.getResourceCache().size() );
+        assertEquals( 0, ResourceManager.getResourceCache().getHits() );
+    }
+}
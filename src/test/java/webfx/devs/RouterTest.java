@@ -0,0 +1,259 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.gson.JsonParser;
+
+/**
+ * Unit tests for the Router.
+ */
+public class RouterTest 
+{
+    static final Map<String, CountDownLatch> gates = new ConcurrentHashMap<>();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Class<?> clazz;
+    private RecordingView view;
+
+    /**
+     * Records what the Router hands to the page, and holds actions meant for the application thread until they are run
+     */
+    static class RecordingView implements Router.View
+    {
+        final List<String> pages = Collections.synchronizedList(new ArrayList<>());
+        final List<String> scripts = Collections.synchronizedList(new ArrayList<>());
+        final List<Runnable> later = Collections.synchronizedList(new ArrayList<>());
+
+        public void load(String url){ pages.add(url); }
+        public void loadContent(String html){ pages.add(html); }
+        public Object executeScript(String script){ scripts.add(script); return "promise " + scripts.size(); }
+        public void runLater(Runnable action){ later.add(action); }
+    }
+
+    @Endpoint(name = "router.wait", async = true)
+    public static String await(Data data)
+    {
+        String name = data.get("name", String.class);
+        try{
+            gates.get(name).await();
+        }catch(InterruptedException e){
+            throw new IllegalStateException(e);
+        }
+        if(name.startsWith("fail"))
+            throw new IllegalStateException(name + " failed");
+        return name;
+    }
+
+    @Before
+    public void setUp()
+    {
+        clazz = ResourceManager.clazz;
+        ResourceManager.clazz = RouterTest.class;
+        view = new RecordingView();
+    }
+
+    @After
+    public void tearDown()
+    {
+        ResourceManager.clazz = clazz;
+        gates.clear();
+    }
+
+    private Router router(String filename)
+    {
+        return new Router(filename, view, "webfx.devs", new File(folder.getRoot(), "current.html").toURI());
+    }
+
+    private Object call(Router router, String name)
+    {
+        gates.put(name, new CountDownLatch(1));
+        return router.route("router.wait", "{\"name\":" + DataSerializer.toJson(name) + "}");
+    }
+
+    private void release(Router router, String name, int unsettled) throws InterruptedException
+    {
+        gates.get(name).countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while(router.unsettledPromises() < unsettled){
+            assertTrue( "The endpoint did not complete", System.nanoTime() < deadline );
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void settlesCompletedCallsInOneBatchInTheOrderTheyFinished() throws Exception
+    {
+        Router router = router("router-home");
+        assertEquals( "promise 1", call(router, "first") );
+        assertEquals( "promise 2", call(router, "second") );
+        assertEquals( "promise 3", call(router, "third") );
+        assertTrue( view.scripts.get(0).endsWith(".create(1)") );
+        assertTrue( view.scripts.get(2).endsWith(".create(3)") );
+
+        release(router, "second", 1);
+        release(router, "third", 2);
+        release(router, "first", 3);
+        //Every result completed before the application thread ran, so they share a single settle
+        assertEquals( 1, view.later.size() );
+        view.later.get(0).run();
+        assertEquals( 0, router.unsettledPromises() );
+        assertEquals( 4, view.scripts.size() );
+        assertEquals( "if(window.__webfx) window.__webfx.settle([[2,true,\"second\"],[3,true,\"third\"],[1,true,\"first\"]])", view.scripts.get(3) );
+    }
+
+    @Test
+    public void rejectsThePromiseWithTheEndpointsException() throws Exception
+    {
+        Router router = router("router-home");
+        call(router, "ok");
+        call(router, "fail \"quoted\"");
+        release(router, "fail \"quoted\"", 1);
+        release(router, "ok", 2);
+        view.later.get(0).run();
+        assertEquals( "if(window.__webfx) window.__webfx.settle([[2,false,\"fail \\\"quoted\\\" failed\"],[1,true,\"ok\"]])", view.scripts.get(2) );
+
+        //A call completing after the batch was settled schedules a new one
+        call(router, "late");
+        release(router, "late", 1);
+        assertEquals( 2, view.later.size() );
+        view.later.get(1).run();
+        assertEquals( "if(window.__webfx) window.__webfx.settle([[3,true,\"late\"]])", view.scripts.get(4) );
+    }
+
+    private String shown()
+    {
+        return view.pages.get(view.pages.size() - 1);
+    }
+
+    @Test
+    public void goingBackServesTheSnapshot()
+    {
+        Router router = router("router-home");
+        router.setInMemoryRendering(true);
+        router.renderWithData("router-profile", "{\"name\":\"Ada\"}");
+        assertTrue( shown().contains("<p>Ada</p>") );
+
+        //Neither template can be read any more, so only the snapshot can bring the page back
+        ResourceManager.clazz = Object.class;
+        ResourceManager.invalidateResources();
+        router.goBack();
+        assertTrue( shown().contains("<h1>Home</h1>") );
+        assertEquals( 1, router.getSnapshotCache().getHits() );
+        assertEquals( 1, router.getSnapshotCache().size() );
+    }
+
+    @Test
+    public void navigatingForwardRendersTheNewData()
+    {
+        Router router = router("router-home");
+        router.setInMemoryRendering(true);
+        router.renderWithData("router-profile", "{\"name\":\"Ada\"}");
+        router.goBack();
+        router.renderWithData("router-profile", "{\"name\":\"Grace\"}");
+        assertTrue( shown().contains("<p>Grace</p>") );
+        assertFalse( shown().contains("Ada") );
+
+        router.render("router-home");
+        router.goBack();
+        assertTrue( shown().contains("<p>Grace</p>") );
+    }
+
+    @Test
+    public void goingBackWithoutASnapshotRendersAgain()
+    {
+        Router router = router("router-home");
+        router.setInMemoryRendering(true);
+        router.setSnapshotCacheBudget(0);
+        router.renderWithData("router-profile", "{\"name\":\"Ada\"}");
+        router.render("router-home");
+        router.goBack();
+        assertTrue( shown().contains("<p>Ada</p>") );
+        assertEquals( 0, router.getSnapshotCache().getHits() );
+    }
+
+    @Test
+    public void rendersTheTemplateAloneWithoutData()
+    {
+        Router router = router("router-home");
+        router.setInMemoryRendering(true);
+        Data profile = new Data();
+        profile.put("name", "Ada");
+        router.renderWithData("router-profile", profile);
+        assertTrue( shown().contains("<p>Ada</p>") );
+        int shownPages = view.pages.size();
+        router.renderWithData("router-home", (Data) null);
+        assertEquals( shownPages + 1, view.pages.size() );
+        assertTrue( shown().contains("<h1>Home</h1>") );
+    }
+
+    @Test
+    public void readsTextFieldsAndTextareas()
+    {
+        Data form = Router.formToData("{\"username\":\"ada\",\"bio\":\"line one\\nline two\",\"nickname\":null}");
+        assertEquals( "ada", form.get("username") );
+        assertEquals( "line one\nline two", form.get("bio") );
+        assertTrue( form.containsKey("nickname") );
+        assertNull( form.get("nickname") );
+    }
+
+    @Test
+    public void readsCheckboxesAndRadios()
+    {
+        Data form = Router.formToData("{\"terms\":true,\"newsletter\":false,\"toppings\":[\"ham\",\"olives\"],"
+                + "\"sizes\":[],\"color\":\"red\",\"shipping\":null}");
+        assertEquals( true, form.get("terms") );
+        assertEquals( false, form.get("newsletter") );
+        assertEquals( List.of("ham", "olives"), form.get("toppings") );
+        assertEquals( List.of(), form.get("sizes") );
+        assertEquals( "red", form.get("color") );
+        assertNull( form.get("shipping") );
+    }
+
+    @Test
+    public void readsMultipleSelects()
+    {
+        Data form = Router.formToData("{\"languages\":[\"java\",\"js\"],\"country\":\"NO\",\"none\":[]}");
+        assertEquals( List.of("java", "js"), form.get("languages") );
+        assertEquals( "NO", form.get("country") );
+        assertEquals( List.of(), form.get("none") );
+    }
+
+    @Test
+    public void readsAnEmptyForm()
+    {
+        assertTrue( Router.formToData("{}").isEmpty() );
+    }
+
+    @Test
+    public void keepsFieldNamesAsTheyAre()
+    {
+        String json = "{\"user.name\":\"ada\",\"tags[]\":[\"a\",\"b\"],\"address[city]\":\"Oslo\",\"odd'\\\"name\":\"x\"}";
+        Data form = Router.formToData(json);
+        assertEquals( "ada", form.get("user.name") );
+        assertEquals( List.of("a", "b"), form.get("tags[]") );
+        assertEquals( "Oslo", form.get("address[city]") );
+        assertEquals( "x", form.get("odd'\"name") );
+        //Serializing the form gives back the submitted fields
+        assertEquals( JsonParser.parseString(json), JsonParser.parseString(DataSerializer.toJson(form)) );
+    }
+}
@@ -0,0 +1,148 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the compact rows read from the Database.
+ */
+public class RowDataTest 
+{
+    private static final String[] COLUMNS = {"id", "name", "score", "total", "note"};
+
+    /**
+     * Reads a row holding the given values through a stub result set
+     */
+    private static RowData row(Object... values) throws Exception
+    {
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(RowDataTest.class.getClassLoader(),
+            new Class<?>[]{ResultSetMetaData.class}, (proxy, method, args) ->
+                method.getName().equals("getColumnCount") ? (Object) COLUMNS.length : COLUMNS[(Integer) args[0] - 1]);
+        ResultSet resultSet = (ResultSet) Proxy.newProxyInstance(RowDataTest.class.getClassLoader(),
+            new Class<?>[]{ResultSet.class}, (proxy, method, args) -> values[(Integer) args[0] - 1]);
+        return RowData.read(resultSet, RowData.Shape.of(metaData));
+    }
+
+    private static Map<String, Object> expected()
+    {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", 7);
+        map.put("name", "bob");
+        map.put("score", 2.5);
+        map.put("total", 1L << 40);
+        map.put("note", null);
+        return map;
+    }
+
+    @Test
+    public void behavesLikeAHashMapOfTheSameEntries() throws Exception
+    {
+        RowData row = row(7, "bob", 2.5, 1L << 40, null);
+        Map<String, Object> map = expected();
+        assertEquals( map, row );
+        assertEquals( row, map );
+        assertEquals( map.hashCode(), row.hashCode() );
+        assertEquals( 5, row.size() );
+        assertTrue( row.containsKey("note") );
+        assertTrue( row.containsValue(2.5) );
+        assertSame( Integer.class, row.get("id").getClass() );
+        assertSame( Long.class, row.get("total").getClass() );
+        assertSame( Double.class, row.get("score").getClass() );
+        assertEquals( "7", row.get("id", String.class) );
+        assertNull( row.get("missing") );
+    }
+
+    @Test
+    public void replacesAndRemovesColumnsInPlace() throws Exception
+    {
+        RowData row = row(7, "bob", 2.5, 1L << 40, null);
+        Map<String, Object> map = expected();
+        assertEquals( map.put("id", 9L), row.put("id", 9L) );
+        assertEquals( map.remove("note"), row.remove("note") );
+        assertNull( row.remove("note") );
+        row.keySet().remove("name");
+        map.keySet().remove("name");
+        for(Map.Entry<String, Object> entry : row.entrySet())
+            entry.setValue(entry.getKey());
+        for(Map.Entry<String, Object> entry : map.entrySet())
+            entry.setValue(entry.getKey());
+        assertEquals( map, row );
+        assertEquals( 3, row.size() );
+        assertTrue( row.weight() > 0 );
+    }
+
+    @Test
+    public void newKeysMoveTheRowIntoHashMapStorage() throws Exception
+    {
+        RowData row = row(7, "bob", 2.5, 1L << 40, null);
+        row.put("extra", true);
+        Map<String, Object> map = expected();
+        map.put("extra", true);
+        assertEquals( map, row );
+        assertEquals( -1, row.weight() );
+        row.computeIfAbsent("other", key -> 1);
+        assertEquals( 7, row.size() );
+    }
+
+    @Test
+    public void iteratorFailsFastOnceTheRowHasInflated() throws Exception
+    {
+        RowData row = row(7, "bob", 2.5, 1L << 40, null);
+        Iterator<String> keys = row.keySet().iterator();
+        keys.next();
+        row.put("extra", true);
+        try{
+            keys.remove();
+            fail( "The iterator should detect the inflated row" );
+        }catch(ConcurrentModificationException e){
+            //Expected
+        }
+        try{
+            keys.next();
+            fail( "The iterator should detect the inflated row" );
+        }catch(ConcurrentModificationException e){
+            //Expected
+        }
+    }
+
+    @Test
+    public void copiesAreIndependent() throws Exception
+    {
+        RowData row = row(7, "bob", 2.5, 1L << 40, null);
+        Data copy = row.copy();
+        copy.put("name", "alice");
+        assertEquals( "bob", row.get("name") );
+        assertEquals( "alice", copy.get("name") );
+    }
+
+    @Test
+    public void serializesAsPlainData() throws Exception
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(ObjectOutputStream out = new ObjectOutputStream(bytes)){
+            out.writeObject(row(7, "bob", 2.5, 1L << 40, null));
+        }
+        Object read = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+        assertSame( Data.class, read.getClass() );
+        assertEquals( expected(), read );
+        assertFalse( ((Data) read).isEmpty() );
+    }
+}
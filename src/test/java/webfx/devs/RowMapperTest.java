@@ -0,0 +1,146 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Unit tests for mapping Database rows straight into classes and records.
+ */
+public class RowMapperTest 
+{
+    public enum Role { ADMIN, USER }
+
+    public static class User {
+        String name;
+        int age;
+        long points;
+        double score;
+        boolean active;
+        char grade;
+        Role role;
+        @Nullable Integer rank;
+        @Nullable Character initial;
+        @Nullable Role backup;
+
+        User(){
+        }
+
+        User(String name, int age, char grade, Role role, Integer rank, Character initial, Role backup){
+            this.name = name;
+            this.age = age;
+            this.points = age * 1_000_000_000L;
+            this.score = age / 4.0;
+            this.active = age % 2 == 0;
+            this.grade = grade;
+            this.role = role;
+            this.rank = rank;
+            this.initial = initial;
+            this.backup = backup;
+        }
+    }
+
+    //Reads the columns of User it declares, and has fields without a column
+    public static class Profile {
+        int id;
+        String name;
+        char grade;
+        Role role;
+        String nickname = "none";
+        int visits = 7;
+    }
+
+    public record UserRecord(String name, int age, long points, double score, boolean active, char grade, Role role,
+                             Integer rank, Character initial, Role backup) {}
+
+    //Has components without a column
+    public record ProfileRecord(int id, String name, String nickname, int visits, char missing) {}
+
+    @Rule
+    public TemporaryDatabase database = new TemporaryDatabase();
+
+    @Before
+    public void setUp()
+    {
+        assertTrue( Database.createTable("User", User.class) );
+        assertTrue( Database.insert("User", new User("ann", 30, 'A', Role.ADMIN, 1, 'a', Role.USER)) );
+        assertTrue( Database.insert("User", new User("bob", 25, 'B', Role.USER, null, null, null)) );
+    }
+
+    @Test
+    public void mapsEveryTypeIntoAClass()
+    {
+        User ann = Database.get("User", "1", User.class);
+        assertNotNull( ann );
+        assertEquals( "ann", ann.name );
+        assertEquals( 30, ann.age );
+        assertEquals( 30_000_000_000L, ann.points );
+        assertEquals( 7.5, ann.score, 0 );
+        assertTrue( ann.active );
+        assertEquals( 'A', ann.grade );
+        assertEquals( Role.ADMIN, ann.role );
+        assertEquals( Integer.valueOf(1), ann.rank );
+        assertEquals( Character.valueOf('a'), ann.initial );
+        assertEquals( Role.USER, ann.backup );
+    }
+
+    @Test
+    public void mapsNullColumnsIntoAClass()
+    {
+        User bob = Database.get("User", "2", User.class);
+        assertNotNull( bob );
+        assertFalse( bob.active );
+        assertNull( bob.rank );
+        assertNull( bob.initial );
+        assertNull( bob.backup );
+    }
+
+    @Test
+    public void mapsEveryTypeAndNullIntoARecord()
+    {
+        List<UserRecord> users = Database.getAll("User", "age >= ? ORDER BY age", UserRecord.class, 20);
+        assertEquals( 2, users.size() );
+        assertEquals( new UserRecord("bob", 25, 25_000_000_000L, 6.25, false, 'B', Role.USER, null, null, null), users.get(0) );
+        assertEquals( new UserRecord("ann", 30, 30_000_000_000L, 7.5, true, 'A', Role.ADMIN, 1, 'a', Role.USER), users.get(1) );
+        assertEquals( users, Database.getAll("User", "age >= ? ORDER BY age", UserRecord.class, 20) );
+    }
+
+    @Test
+    public void skipsMissingColumnsAndFields()
+    {
+        List<Profile> profiles = Database.getAll("User", Profile.class);
+        assertEquals( 2, profiles.size() );
+        Profile bob = profiles.get(1);
+        assertEquals( 2, bob.id );
+        assertEquals( "bob", bob.name );
+        assertEquals( 'B', bob.grade );
+        assertEquals( Role.USER, bob.role );
+        assertEquals( "none", bob.nickname );
+        assertEquals( 7, bob.visits );
+        ProfileRecord ann = Database.get("User", "1", ProfileRecord.class);
+        assertEquals( new ProfileRecord(1, "ann", null, 0, '\0'), ann );
+    }
+
+    @Test
+    public void returnsNullForRowsThatCannotBeMapped() throws SQLException
+    {
+        try(ConnectionManager.Lease lease = Database.writer(); Statement statement = lease.connection().createStatement()){
+            statement.executeUpdate("UPDATE User SET role = 'GUEST' WHERE id = 2");
+            lease.connection().commit();
+        }
+        assertNull( Database.get("User", "2", User.class) );
+        assertNull( Database.getAll("User", User.class) );
+        assertNotNull( Database.get("User", "1", User.class) );
+        assertNull( Database.get("User", "3", User.class) );
+    }
+}
@@ -0,0 +1,136 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Unit tests for the prepared statement cache of each connection.
+ */
+public class StatementCacheTest 
+{
+    public static class Note {
+        String text;
+
+        Note(String text){
+            this.text = text;
+        }
+    }
+
+    public record Rejected(String text) {
+        public Rejected {
+            throw new IllegalArgumentException("rejected " + text);
+        }
+    }
+
+    @Rule
+    public TemporaryDatabase database = new TemporaryDatabase(1);
+
+    private Connection connection;
+
+    @Before
+    public void setUp() throws SQLException
+    {
+        assertTrue( Database.createTable("Note", Note.class) );
+        assertTrue( Database.insert("Note", new Note("first")) );
+        connection = DriverManager.getConnection("jdbc:sqlite:" + database.getFile().getPath());
+    }
+
+    @After
+    public void tearDown() throws SQLException
+    {
+        connection.close();
+    }
+
+    /**
+     * The driver refuses to hand out the result set of a statement again while it is still open
+     */
+    private static void assertResultSetClosed(PreparedStatement statement) throws SQLException
+    {
+        assertNotNull( statement.getResultSet() );
+    }
+
+    @Test
+    public void reusesTheStatementForTheSameSql() throws SQLException
+    {
+        StatementCache cache = new StatementCache(connection, 4);
+        PreparedStatement statement = cache.prepare("SELECT * FROM Note");
+        assertSame( statement, cache.prepare("SELECT * FROM Note") );
+        assertNotSame( statement, cache.prepare("SELECT text FROM Note") );
+        assertEquals( 1, cache.getHits() );
+        assertEquals( 2, cache.getMisses() );
+        assertEquals( 2, cache.size() );
+    }
+
+    @Test
+    public void closesTheStatementsItEvicts() throws SQLException
+    {
+        StatementCache cache = new StatementCache(connection, 2);
+        PreparedStatement first = cache.prepare("SELECT * FROM Note");
+        PreparedStatement second = cache.prepare("SELECT text FROM Note");
+        PreparedStatement third = cache.prepare("SELECT id FROM Note");
+        assertTrue( first.isClosed() );
+        assertFalse( second.isClosed() );
+        assertEquals( 1, cache.getEvictions() );
+
+        cache.setCapacity(1);
+        assertTrue( second.isClosed() );
+        assertFalse( third.isClosed() );
+
+        cache.invalidateAll();
+        assertTrue( third.isClosed() );
+        assertEquals( 0, cache.size() );
+        assertNotSame( third, cache.prepare("SELECT id FROM Note") );
+    }
+
+    @Test
+    public void closesEveryConnectionsStatementsWhenTheSchemaChanges() throws SQLException
+    {
+        try(ConnectionManager manager = ConnectionManager.open("jdbc:sqlite:" + database.getFile().getPath(), 1, 4)){
+            PreparedStatement written;
+            PreparedStatement read;
+            try(ConnectionManager.Lease writer = manager.writer()){
+                written = writer.statements().prepare("SELECT * FROM Note");
+            }
+            try(ConnectionManager.Lease reader = manager.reader()){
+                read = reader.statements().prepare("SELECT * FROM Note");
+            }
+            manager.schemaChanged();
+            try(ConnectionManager.Lease writer = manager.writer()){
+                assertTrue( written.isClosed() );
+                assertNotSame( written, writer.statements().prepare("SELECT * FROM Note") );
+            }
+            try(ConnectionManager.Lease reader = manager.reader()){
+                assertTrue( read.isClosed() );
+                assertNotSame( read, reader.statements().prepare("SELECT * FROM Note") );
+            }
+        }
+    }
+
+    @Test
+    public void closesTheResultSetWhenARowCannotBeMapped() throws SQLException
+    {
+        assertNull( Database.get("Note", "1", Rejected.class) );
+        StatementCache reader = Database.getStatementCaches().get(1);
+        assertResultSetClosed( reader.prepare("SELECT * FROM Note WHERE id = ?") );
+
+        assertNull( Database.getAll("Note", Rejected.class) );
+        assertResultSetClosed( reader.prepare("SELECT * FROM Note") );
+        assertEquals( 2, reader.getHits() );
+        assertEquals( "first", Database.get("Note", "1").get("text", String.class) );
+    }
+}
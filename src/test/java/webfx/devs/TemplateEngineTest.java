@@ -0,0 +1,49 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the html helpers of the TemplateEngine.
+ */
+public class TemplateEngineTest 
+{
+    private static final String HREF = "file:///app/pages/current.html";
+
+    @Test
+    public void addsTheBaseAfterTheHead()
+    {
+        assertEquals( "<html><head><base href=\"" + HREF + "\"><title>t</title></head></html>",
+                TemplateEngine.addBase("<html><head><title>t</title></head></html>", HREF) );
+        assertEquals( "<HEAD lang=\"en\"><base href=\"" + HREF + "\"></HEAD>",
+                TemplateEngine.addBase("<HEAD lang=\"en\"></HEAD>", HREF) );
+    }
+
+    @Test
+    public void prependsTheBaseWithoutAHead()
+    {
+        assertEquals( "<base href=\"" + HREF + "\"><p>no head</p>", TemplateEngine.addBase("<p>no head</p>", HREF) );
+        //A <header> is not a <head>
+        assertEquals( "<base href=\"" + HREF + "\"><header>h</header>", TemplateEngine.addBase("<header>h</header>", HREF) );
+    }
+
+    @Test
+    public void keepsAnExistingBase()
+    {
+        String page = "<head><base href=\"https://example.org/\"></head>";
+        assertSame( page, TemplateEngine.addBase(page, HREF) );
+        String upper = "<head><BASE\ttarget=\"_blank\"></head>";
+        assertSame( upper, TemplateEngine.addBase(upper, HREF) );
+        assertEquals( "<head><base href=\"" + HREF + "\"><basefont size=3></head>",
+                TemplateEngine.addBase("<head><basefont size=3></head>", HREF) );
+    }
+
+    @Test
+    public void escapesQuotesAndIgnoresANullHref()
+    {
+        assertEquals( "<base href=\"a%22b\">x", TemplateEngine.addBase("x", "a\"b") );
+        assertSame( "<head></head>", TemplateEngine.addBase("<head></head>", null) );
+    }
+}
@@ -0,0 +1,58 @@
+package webfx.devs;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.junit.rules.ExternalResource;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Connects the Database to a file in a temporary folder before each test, then closes it and deletes the folder.
+ * <p>Used as a {@code @Rule}, so it connects before the test's own {@code @Before} methods and closes after its {@code @After} methods.</p>
+ */
+public class TemporaryDatabase extends ExternalResource 
+{
+    private final TemporaryFolder folder = new TemporaryFolder();
+    private final int readers;
+
+    /**
+     * A database with the default pool of 4 read-only connections
+     */
+    public TemporaryDatabase()
+    {
+        this(4);
+    }
+
+    /**
+     * A database with the given number of read-only connections
+     * @param readers , the number of read-only connections, {@code 0} to read through the writer
+     */
+    public TemporaryDatabase(int readers)
+    {
+        this.readers = readers;
+    }
+
+    @Override
+    protected void before() throws Throwable
+    {
+        folder.create();
+        assertTrue( Database.connect(getFile(), readers) );
+    }
+
+    @Override
+    protected void after()
+    {
+        Database.close();
+        folder.delete();
+    }
+
+    /**
+     * Returns the database file
+     * @return The {@code File} of the database, inside the temporary folder
+     */
+    public File getFile()
+    {
+        return new File(folder.getRoot(), "test.db");
+    }
+}